@@ -0,0 +1,81 @@
+package com.test.dog.benchmark;
+
+import com.test.dog.dto.DogBreedsResponse;
+import com.test.dog.dto.DogImagesResponse;
+import com.test.dog.dto.DogSubBreedsResponse;
+import com.test.dog.service.UpstreamTransport;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Payloads shaped like the real dog.ceo responses, and an upstream that serves them
+ * without any I/O so the benchmarks measure our own code.
+ */
+final class BenchmarkFixtures {
+
+    // roughly what dog.ceo returns today: ~100 breeds, terrier has the most sub-breeds
+    static final int BREED_COUNT = 100;
+    static final int SUB_BREED_COUNT = 23;
+
+    private BenchmarkFixtures() {
+    }
+
+    static DogBreedsResponse breeds(int breedCount) {
+        Map<String, List<String>> message = new LinkedHashMap<>();
+        for (int i = 0; i < breedCount; i++) {
+            message.put("breed" + i, subBreedNames(i % 4 == 0 ? 1 + i % 7 : 0));
+        }
+        return new DogBreedsResponse(message);
+    }
+
+    static List<String> subBreedNames(int count) {
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            names.add("sub" + i);
+        }
+        return names;
+    }
+
+    static List<String> imageUrls(String breed, int count) {
+        List<String> urls = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            urls.add("https://images.dog.ceo/breeds/" + breed + "/n020" + (960000 + i) + "_" + i + ".jpg");
+        }
+        return urls;
+    }
+
+    /**
+     * Answers every dog.ceo URL the client builds from prebuilt responses.
+     */
+    static UpstreamTransport stubTransport(int imageCount) {
+        DogBreedsResponse breeds = breeds(BREED_COUNT);
+        Map<String, Object> responses = new ConcurrentHashMap<>();
+        return new UpstreamTransport() {
+            @Override
+            public <T> CompletableFuture<T> get(String url, Class<T> type) {
+                Object body = responses.computeIfAbsent(url, u -> respond(u, breeds, imageCount));
+                return CompletableFuture.completedFuture(type.cast(body));
+            }
+        };
+    }
+
+    private static Object respond(String url, DogBreedsResponse breeds, int imageCount) {
+        if (url.endsWith("/breeds/list/all")) {
+            return breeds;
+        }
+        String breed = url.replaceFirst(".*/breed/([^/]+)/.*", "$1");
+        if (url.endsWith("/list")) {
+            return new DogSubBreedsResponse(subBreedNames(SUB_BREED_COUNT));
+        }
+        if (url.contains("/images/random/")) {
+            int count = Integer.parseInt(url.substring(url.lastIndexOf('/') + 1));
+            return new DogImagesResponse(imageUrls(breed, count));
+        }
+        return new DogImagesResponse(imageUrls(breed, imageCount));
+    }
+}
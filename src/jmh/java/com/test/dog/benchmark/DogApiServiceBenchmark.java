@@ -0,0 +1,54 @@
+package com.test.dog.benchmark;
+
+import com.test.dog.config.DogApiProperties;
+import com.test.dog.service.BreedCatalogCache;
+import com.test.dog.service.DogApiClient;
+import com.test.dog.service.DogApiService;
+import com.test.dog.service.UpstreamTransport;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DogApiService#getDogSubBreeds} per breed branch, with the upstream replaced by
+ * in-memory responses. After the first call the catalogue lookups are cache hits, so this
+ * measures the cache, single-flight and breaker overhead plus the per-branch shaping.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DogApiServiceBenchmark {
+
+    @Param({"sheepdog", "terrier", "shiba", "labrador"})
+    public String breed;
+
+    // dog.ceo lists a few hundred images for most breeds
+    @Param({"300"})
+    public int imageCount;
+
+    private UpstreamTransport transport;
+    private DogApiService dogApiService;
+
+    @Setup
+    public void setUp() {
+        DogApiProperties properties = new DogApiProperties();
+        transport = BenchmarkFixtures.stubTransport(imageCount);
+        DogApiClient dogApiClient = new DogApiClient(transport, properties);
+        dogApiService = new DogApiService(new BreedCatalogCache(dogApiClient, properties), null);
+        dogApiService.getDogSubBreeds(breed);
+    }
+
+    @TearDown
+    public void tearDown() {
+        transport.close();
+    }
+
+    @Benchmark
+    public List<String> getDogSubBreeds() {
+        return dogApiService.getDogSubBreeds(breed);
+    }
+}
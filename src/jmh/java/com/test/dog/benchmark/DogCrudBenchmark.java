@@ -0,0 +1,94 @@
+package com.test.dog.benchmark;
+
+import com.test.dog.DogApplication;
+import com.test.dog.model.Dog;
+import com.test.dog.service.DogApiService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * The {@link Dog} CRUD path through {@link DogApiService} and the repository, on the same
+ * Hibernate settings the application runs with: {@code memory} is the default in-memory H2
+ * database, {@code file} the prod profile's MVStore file database and Flyway schema, in a
+ * temporary directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DogCrudBenchmark {
+
+    private static final int SEEDED_DOGS = 1000;
+
+    @Param({"memory", "file"})
+    private String database;
+
+    private Path dataDir;
+    private ConfigurableApplicationContext context;
+    private DogApiService dogApiService;
+    private long firstId;
+    private long next;
+
+    @Setup
+    public void setUp() throws IOException {
+        SpringApplication application = new SpringApplication(DogApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        List<String> args = new ArrayList<>(List.of("--spring.jpa.show-sql=false", "--logging.level.root=warn", "--dog.mirror.enabled=false"));
+        if (database.equals("file")) {
+            dataDir = Files.createTempDirectory("dog-bench");
+            args.add("--spring.profiles.active=prod");
+            args.add("--DOG_DATA_DIR=" + dataDir);
+        } else {
+            args.add("--spring.datasource.url=jdbc:h2:mem:benchdb;DB_CLOSE_ON_EXIT=FALSE");
+        }
+        context = application.run(args.toArray(new String[0]));
+        dogApiService = context.getBean(DogApiService.class);
+        firstId = dogApiService.createDog(new Dog(null, "Rex", "labrador", 3, "black")).getId();
+        for (int i = 1; i < SEEDED_DOGS; i++) {
+            dogApiService.createDog(new Dog(null, "Rex" + i, "labrador", i % 15, "black"));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        if (dataDir != null) {
+            try (Stream<Path> files = Files.walk(dataDir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private long nextSeededId() {
+        return firstId + (next++ % SEEDED_DOGS);
+    }
+
+    @Benchmark
+    public Dog getById() {
+        return dogApiService.getDogById(nextSeededId());
+    }
+
+    @Benchmark
+    public Dog update() {
+        return dogApiService.updateDog(nextSeededId(), new Dog(null, "Max", "beagle", 4, "brown"));
+    }
+
+    @Benchmark
+    public void createAndDelete() {
+        Dog dog = dogApiService.createDog(new Dog(null, "Bella", "poodle", 2, "white"));
+        dogApiService.deleteDog(dog.getId());
+    }
+}
@@ -0,0 +1,72 @@
+package com.test.dog.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.test.dog.dto.DogBreedsResponse;
+import com.test.dog.dto.DogImagesResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson binding of the two largest dog.ceo payloads: the full breed list and a breed's
+ * image list, both in and out of bytes as the transport and controllers do it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DogJsonBenchmark {
+
+    // from a small breed up to the largest image lists dog.ceo serves
+    @Param({"50", "500", "5000"})
+    public int imageCount;
+
+    private ObjectWriter breedsWriter;
+    private ObjectReader breedsReader;
+    private ObjectWriter imagesWriter;
+    private ObjectReader imagesReader;
+
+    private DogBreedsResponse breeds;
+    private DogImagesResponse images;
+    private byte[] breedsJson;
+    private byte[] imagesJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        breedsWriter = objectMapper.writerFor(DogBreedsResponse.class);
+        breedsReader = objectMapper.readerFor(DogBreedsResponse.class);
+        imagesWriter = objectMapper.writerFor(DogImagesResponse.class);
+        imagesReader = objectMapper.readerFor(DogImagesResponse.class);
+
+        breeds = BenchmarkFixtures.breeds(BenchmarkFixtures.BREED_COUNT);
+        images = new DogImagesResponse(BenchmarkFixtures.imageUrls("hound-afghan", imageCount));
+        breedsJson = breedsWriter.writeValueAsBytes(breeds);
+        imagesJson = imagesWriter.writeValueAsBytes(images);
+    }
+
+    @Benchmark
+    public byte[] serializeBreeds() throws IOException {
+        return breedsWriter.writeValueAsBytes(breeds);
+    }
+
+    @Benchmark
+    public DogBreedsResponse deserializeBreeds() throws IOException {
+        return breedsReader.readValue(breedsJson);
+    }
+
+    @Benchmark
+    public byte[] serializeImages() throws IOException {
+        return imagesWriter.writeValueAsBytes(images);
+    }
+
+    @Benchmark
+    public DogImagesResponse deserializeImages() throws IOException {
+        return imagesReader.readValue(imagesJson);
+    }
+}
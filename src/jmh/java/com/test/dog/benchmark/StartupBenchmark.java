@@ -0,0 +1,158 @@
+package com.test.dog.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.test.dog.stub.DogCeoStubProperties;
+import com.test.dog.stub.DogCeoStubServer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Cold start: from launching the application's JVM to the first successful GET /dogs/{id} and
+ * GET /dogs/dog-breeds. Every invocation starts a fresh JVM with the prod profile, on a file
+ * database seeded once per trial and with a dog.ceo stub running in the benchmark JVM.
+ * {@code launch} picks the build: {@code jar} is the fat jar from package, {@code startup} the
+ * AOT and CDS build from the startup profile. Compare the two with
+ * <pre>
+ *     ./mvnw -Pstartup,jmh -DskipTests verify -Djmh.args="StartupBenchmark -p launch=jar,startup"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupBenchmark {
+
+    private static final Path TARGET = Path.of("target");
+    private static final long START_TIMEOUT_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    @Param({"jar"})
+    public String launch;
+
+    private DogCeoStubServer stub;
+    private HttpClient client;
+    private Path dataDir;
+    private Process app;
+    private int port;
+    private long dogId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        DogCeoStubProperties properties = new DogCeoStubProperties();
+        properties.setPort(0);
+        stub = new DogCeoStubServer(properties);
+        stub.start();
+        client = HttpClient.newHttpClient();
+        dataDir = Files.createTempDirectory("dog-startup");
+
+        // the dog the measured runs read back
+        start();
+        HttpResponse<String> created = await(HttpRequest.newBuilder(uri("/dogs"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"Rex\",\"breed\":\"hound\",\"age\":3,\"color\":\"brown\"}"))
+                .build());
+        dogId = new ObjectMapper().readTree(created.body()).get("id").asLong();
+        stop();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        stub.close();
+        try (Stream<Path> files = Files.walk(dataDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void stop() throws InterruptedException {
+        if (app != null) {
+            app.destroy();
+            if (!app.waitFor(30, TimeUnit.SECONDS)) {
+                app.destroyForcibly().waitFor();
+            }
+            app = null;
+        }
+    }
+
+    @Benchmark
+    public int firstDogById() throws Exception {
+        start();
+        return await(HttpRequest.newBuilder(uri("/dogs/" + dogId)).build()).statusCode();
+    }
+
+    @Benchmark
+    public int firstDogBreeds() throws Exception {
+        start();
+        return await(HttpRequest.newBuilder(uri("/dogs/dog-breeds")).build()).statusCode();
+    }
+
+    private void start() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        switch (launch) {
+            case "jar" -> command.addAll(List.of("-jar", jar(TARGET, "dog-*-SNAPSHOT.jar")));
+            case "startup" -> command.addAll(List.of(
+                    "-XX:SharedArchiveFile=" + TARGET.resolve("startup/dog.jsa"), "-Xlog:cds=off",
+                    "-Dspring.aot.enabled=true", "-jar", jar(TARGET.resolve("startup"), "dog-*-startup.jar")));
+            default -> throw new IllegalArgumentException("launch must be jar or startup, not " + launch);
+        }
+        command.addAll(List.of("--spring.profiles.active=prod", "--DOG_DATA_DIR=" + dataDir,
+                "--server.port=" + port, "--dog.api.base-url=" + stub.getBaseUrl(), "--logging.level.root=warn"));
+        app = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(dataDir.resolve("app.log").toFile()))
+                .start();
+    }
+
+    private HttpResponse<String> await(HttpRequest request) throws Exception {
+        long deadline = System.nanoTime() + START_TIMEOUT_NANOS;
+        while (System.nanoTime() < deadline) {
+            if (!app.isAlive()) {
+                throw new IllegalStateException("The application exited with " + app.exitValue() + ", see " + dataDir.resolve("app.log"));
+            }
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() / 100 == 2) {
+                    return response;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("No successful " + request.uri() + " within two minutes");
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static String jar(Path dir, String glob) throws IOException {
+        if (Files.isDirectory(dir)) {
+            try (var jars = Files.newDirectoryStream(dir, glob)) {
+                for (Path jar : jars) {
+                    return jar.toString();
+                }
+            }
+        }
+        throw new IllegalStateException("No " + glob + " in " + dir + "; build it first (the startup launch needs -Pstartup)");
+    }
+}
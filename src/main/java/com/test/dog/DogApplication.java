@@ -2,12 +2,17 @@ package com.test.dog;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
 
 @SpringBootApplication
 public class DogApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(DogApplication.class, args);
+        ConfigurableApplicationContext context = SpringApplication.run(DogApplication.class, args);
+        // the class-data sharing training run of the startup build (-Pstartup) only needs to get this far
+        if (Boolean.getBoolean("dog.startup.training-run")) {
+            System.exit(SpringApplication.exit(context));
+        }
     }
 
 }
@@ -1,16 +1,100 @@
 package com.test.dog.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.test.dog.service.BlockingUpstreamTransport;
+import com.test.dog.service.OkHttpUpstreamTransport;
+import com.test.dog.service.UpstreamTransport;
+import com.test.dog.stub.DogCeoStubProperties;
+import com.test.dog.stub.DogCeoStubServer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.OkHttp3ClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
+@EnableScheduling
+@EnableConfigurationProperties({DogApiProperties.class, DogBatchProperties.class, DogMirrorProperties.class, DogCeoStubProperties.class,
+        DogConcurrencyProperties.class, DogWriteBehindProperties.class})
 public class AppConfig {
 
+    // the name VirtualThreadsConfig registers its upstream executor under
+    static final String VIRTUAL_THREAD_UPSTREAM_EXECUTOR = "virtualThreadUpstreamExecutor";
+
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public OkHttpClient okHttpClient(DogApiProperties properties) {
+        DogApiProperties.Http http = properties.getHttp();
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(http.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(http.getMaxRequestsPerHost());
+        return new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(http.getMaxIdleConnections(), http.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS))
+                .dispatcher(dispatcher)
+                .protocols(http.isHttp2() ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1) : List.of(Protocol.HTTP_1_1))
+                .connectTimeout(http.getConnectTimeout())
+                .readTimeout(http.getReadTimeout())
+                .callTimeout(http.getCallTimeout())
+                .build();
     }
 
-}
+    @Bean
+    public MeterBinder okHttpPoolMetrics(OkHttpClient okHttpClient) {
+        return registry -> {
+            Gauge.builder("dog.upstream.connections", okHttpClient.connectionPool(), ConnectionPool::connectionCount)
+                    .register(registry);
+            Gauge.builder("dog.upstream.connections.idle", okHttpClient.connectionPool(), ConnectionPool::idleConnectionCount)
+                    .register(registry);
+            Gauge.builder("dog.upstream.calls.running", okHttpClient.dispatcher(), Dispatcher::runningCallsCount)
+                    .register(registry);
+            Gauge.builder("dog.upstream.calls.queued", okHttpClient.dispatcher(), Dispatcher::queuedCallsCount)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public RestTemplate restTemplate(OkHttpClient okHttpClient) {
+        return new RestTemplate(new OkHttp3ClientHttpRequestFactory(okHttpClient));
+    }
+
+    /**
+     * The virtual-thread executor comes from VirtualThreadsConfig, which only the Java 21 build
+     * (java21 profile) contains; without it, asking for virtual threads fails the startup.
+     */
+    @Bean
+    public UpstreamTransport upstreamTransport(DogApiProperties properties, DogConcurrencyProperties concurrency,
+                                               RestTemplate restTemplate, OkHttpClient okHttpClient, ObjectMapper objectMapper,
+                                               @Qualifier(VIRTUAL_THREAD_UPSTREAM_EXECUTOR) ObjectProvider<Executor> virtualThreadExecutor) {
+        if (properties.getAsync().isEnabled()) {
+            return new OkHttpUpstreamTransport(okHttpClient, objectMapper, properties);
+        }
+        if (concurrency.isVirtualThreads()) {
+            Executor executor = virtualThreadExecutor.getIfAvailable();
+            if (executor == null) {
+                throw new IllegalStateException("dog.concurrency.virtual-threads=true needs the Java 21 build (java21 profile)");
+            }
+            return new BlockingUpstreamTransport(restTemplate, executor, properties);
+        }
+        return new BlockingUpstreamTransport(restTemplate, properties);
+    }
 
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(prefix = "dog.stub", name = "enabled", havingValue = "true")
+    public DogCeoStubServer dogCeoStubServer(DogCeoStubProperties properties) {
+        return new DogCeoStubServer(properties);
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.test.dog.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the requests in progress with a semaphore. On virtual threads the servlet pool no
+ * longer bounds concurrency, so this is what keeps a burst from exhausting memory or the
+ * database: requests over the limit wait briefly for a slot and are then turned away with
+ * 503 and Retry-After. Runs after the observation filter, so rejections are still timed.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter implements Ordered, MeterBinder {
+
+    private final int limit;
+    private final long maxWaitNanos;
+    private final Semaphore permits;
+    private final LongAdder rejected = new LongAdder();
+
+    public ConcurrencyLimitFilter(DogConcurrencyProperties properties) {
+        this.limit = properties.getMaxInFlightRequests();
+        this.maxWaitNanos = properties.getMaxWait().toNanos();
+        this.permits = new Semaphore(limit);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Too many concurrent requests");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("dog.http.in.flight", permits, p -> limit - p.availablePermits())
+                .description("Requests holding a concurrency permit")
+                .register(registry);
+        FunctionCounter.builder("dog.http.rejected", rejected, LongAdder::sum)
+                .description("Requests turned away by the concurrency limit")
+                .register(registry);
+    }
+}
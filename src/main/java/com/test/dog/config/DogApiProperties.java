@@ -0,0 +1,78 @@
+package com.test.dog.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "dog.api")
+public class DogApiProperties {
+
+    // Root of the dog.ceo API; point it at a DogCeoStubServer for offline and load testing.
+    private String baseUrl = "https://dog.ceo/api";
+    private Async async = new Async();
+    private Http http = new Http();
+    private Fetch fetch = new Fetch();
+    private Cache cache = new Cache();
+    private Resilience resilience = new Resilience();
+
+    @Data
+    public static class Async {
+        // Serve the breed endpoints without holding a servlet thread, using non-blocking upstream calls.
+        private boolean enabled = false;
+    }
+
+    @Data
+    public static class Http {
+        private Duration connectTimeout = Duration.ofSeconds(2);
+        private Duration readTimeout = Duration.ofSeconds(5);
+        // Upper bound for a whole call, including redirects and retries.
+        private Duration callTimeout = Duration.ofSeconds(10);
+        private int maxIdleConnections = 20;
+        private Duration keepAlive = Duration.ofMinutes(5);
+        // Dispatcher limits, applied to asynchronously enqueued calls.
+        private int maxRequests = 64;
+        private int maxRequestsPerHost = 16;
+        private boolean http2 = true;
+    }
+
+    @Data
+    public static class Fetch {
+        // Threads available for upstream calls; extra calls wait in the queue.
+        private int poolSize = 16;
+        private int queueCapacity = 256;
+        // Deadline applied to each individual upstream call.
+        private Duration timeout = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class Cache {
+        private CacheSpec breeds = new CacheSpec(Duration.ofHours(24), Duration.ofHours(1), 1);
+        private CacheSpec subBreeds = new CacheSpec(Duration.ofHours(12), Duration.ofHours(1), 500);
+        private CacheSpec images = new CacheSpec(Duration.ofHours(6), Duration.ofMinutes(30), 500);
+    }
+
+    @Data
+    public static class Resilience {
+        // Consecutive failures that open a circuit, and how long it stays open before a trial call.
+        private int failureThreshold = 5;
+        private Duration openDuration = Duration.ofSeconds(30);
+        // Bulkhead: concurrent calls allowed per endpoint kind.
+        private int maxConcurrentCalls = 20;
+        // Last known good responses kept for fallback, by upstream URL.
+        private long fallbackMaxSize = 2000;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CacheSpec {
+        // Entries are dropped after ttl; after refresh-after they are still served but reloaded in the background.
+        private Duration ttl;
+        private Duration refreshAfter;
+        private long maxSize;
+    }
+}
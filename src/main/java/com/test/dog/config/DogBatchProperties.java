@@ -0,0 +1,14 @@
+package com.test.dog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "dog.batch")
+public class DogBatchProperties {
+
+    // Largest number of items accepted by one batch request.
+    private int maxSize = 5000;
+    // Items written per transaction; should be a multiple of hibernate.jdbc.batch_size.
+    private int chunkSize = 500;
+}
@@ -0,0 +1,25 @@
+package com.test.dog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Virtual-thread request handling, and the limits that take over from the Tomcat thread pool
+ * when it is on.
+ */
+@Data
+@ConfigurationProperties(prefix = "dog.concurrency")
+public class DogConcurrencyProperties {
+
+    // Run requests and upstream calls on virtual threads; needs the Java 21 build (java21 profile).
+    private boolean virtualThreads = false;
+    // Requests handled at once; the rest wait up to max-wait for a slot, then get a 503.
+    private int maxInFlightRequests = 20000;
+    private Duration maxWait = Duration.ofSeconds(1);
+    // Open connections Tomcat accepts, replacing server.tomcat.max-connections in this mode.
+    private int maxConnections = 30000;
+    // Virtual threads allowed to hold a JDBC connection at once; 0 means half the carrier threads.
+    private int jdbcPermits = 0;
+}
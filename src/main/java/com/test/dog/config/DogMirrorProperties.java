@@ -0,0 +1,19 @@
+package com.test.dog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "dog.mirror")
+public class DogMirrorProperties {
+
+    // Keep a copy of the dog.ceo catalog in the database and serve breed data from it; on in the prod profile.
+    private boolean enabled = false;
+    // Fill the in-process breed cache from the mirror at startup, without calling upstream.
+    private boolean warmOnStartup = true;
+    // The sync schedule is read by @Scheduled, so use ISO-8601 here (PT6H).
+    private Duration initialDelay = Duration.ofSeconds(5);
+    private Duration syncInterval = Duration.ofHours(6);
+}
@@ -0,0 +1,21 @@
+package com.test.dog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "dog.write-behind")
+public class DogWriteBehindProperties {
+
+    // Accept single-dog writes into a queue and write them to the database in the background.
+    private boolean enabled = false;
+    // Writes waiting at most; past this, new writes get 429.
+    private int queueCapacity = 10000;
+    // A transaction takes up to max-batch-size writes, or whatever arrived within flush-window.
+    private int maxBatchSize = 500;
+    private Duration flushWindow = Duration.ofMillis(20);
+    // How long shutdown waits for the queue to drain.
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,27 @@
+package com.test.dog.controller;
+
+import com.test.dog.dto.BreedSearchHit;
+import com.test.dog.service.BreedSearchService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/dogs")
+public class BreedSearchController {
+
+    private final BreedSearchService breedSearchService;
+
+    public BreedSearchController(BreedSearchService breedSearchService) {
+        this.breedSearchService = breedSearchService;
+    }
+
+    @GetMapping("/dog-breeds/search")
+    public List<BreedSearchHit> searchBreeds(@RequestParam("q") String query,
+                                             @RequestParam(defaultValue = "10") int limit) {
+        return breedSearchService.search(query, limit);
+    }
+}
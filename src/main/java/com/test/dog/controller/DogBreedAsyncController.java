@@ -0,0 +1,56 @@
+package com.test.dog.controller;
+
+import com.test.dog.service.DogApiService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Breed endpoints that release the servlet thread while dog.ceo is being called, enabled with
+ * {@code dog.api.async.enabled=true}. Responses are written when the upstream futures complete.
+ */
+@RestController
+@RequestMapping("/dogs")
+@ConditionalOnProperty(prefix = "dog.api.async", name = "enabled", havingValue = "true")
+public class DogBreedAsyncController {
+
+    private final DogApiService dogApiService;
+    private final UpstreamResponses upstreamResponses;
+
+    public DogBreedAsyncController(DogApiService dogApiService, Jackson2ObjectMapperBuilder jackson,
+                                   @Value("${server.compression.min-response-size:2KB}") DataSize minCompressSize) {
+        this.dogApiService = dogApiService;
+        this.upstreamResponses = new UpstreamResponses(jackson, minCompressSize);
+    }
+
+    @GetMapping("/dog-breeds")
+    public CompletableFuture<ResponseEntity<byte[]>> getDogBreeds(@RequestHeader HttpHeaders headers) {
+        return dogApiService.getDogBreedsAsync().thenApply(result -> upstreamResponses.ok(result, headers));
+    }
+
+    @GetMapping("/dog-breeds/{breed}")
+    public CompletableFuture<ResponseEntity<?>> getDogSubBreeds(@PathVariable String breed,
+                                                                @RequestHeader HttpHeaders headers) {
+        boolean reusable = dogApiService.isSubBreedsReusable(breed);
+        return dogApiService.getDogSubBreedsAsync(breed).thenApply(result -> reusable
+                ? upstreamResponses.ok(result, headers)
+                : UpstreamResponses.uncached(result));
+    }
+
+    @GetMapping("/dog-breeds/{breed}/images/random/{count}")
+    public CompletableFuture<ResponseEntity<List<String>>> getRandomImages(@PathVariable String breed, @PathVariable int count) {
+        return dogApiService.getRandomImagesAsync(breed, count).thenApply(UpstreamResponses::uncached);
+    }
+
+}
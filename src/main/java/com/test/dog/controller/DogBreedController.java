@@ -0,0 +1,56 @@
+package com.test.dog.controller;
+
+import com.test.dog.dto.UpstreamResult;
+import com.test.dog.service.DogApiService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Breed endpoints served on the request thread. This is the default; see {@link DogBreedAsyncController}.
+ */
+@RestController
+@RequestMapping("/dogs")
+@ConditionalOnProperty(prefix = "dog.api.async", name = "enabled", havingValue = "false", matchIfMissing = true)
+public class DogBreedController {
+
+    private final DogApiService dogApiService;
+    private final UpstreamResponses upstreamResponses;
+
+    public DogBreedController(DogApiService dogApiService, Jackson2ObjectMapperBuilder jackson,
+                              @Value("${server.compression.min-response-size:2KB}") DataSize minCompressSize) {
+        this.dogApiService = dogApiService;
+        this.upstreamResponses = new UpstreamResponses(jackson, minCompressSize);
+    }
+
+    @GetMapping("/dog-breeds")
+    public ResponseEntity<byte[]> getDogBreeds(@RequestHeader HttpHeaders headers) {
+        return upstreamResponses.ok(dogApiService.getDogBreedsResult(), headers);
+    }
+
+    @GetMapping("/dog-breeds/{breed}")
+    public ResponseEntity<?> getDogSubBreeds(@PathVariable String breed,
+                                             @RequestHeader HttpHeaders headers) {
+        UpstreamResult<List<String>> result = dogApiService.getDogSubBreedsResult(breed);
+        // a shape drawn anew per request is never served twice, so there is nothing to keep or tag
+        return dogApiService.isSubBreedsReusable(breed)
+                ? upstreamResponses.ok(result, headers)
+                : UpstreamResponses.uncached(result);
+    }
+
+    @GetMapping("/dog-breeds/{breed}/images/random/{count}")
+    public ResponseEntity<List<String>> getRandomImages(@PathVariable String breed, @PathVariable int count) {
+        return UpstreamResponses.uncached(dogApiService.getRandomImagesResult(breed, count));
+    }
+
+}
@@ -1,13 +1,20 @@
 package com.test.dog.controller;
 
+import com.test.dog.dto.DogBatchResponse;
+import com.test.dog.dto.DogFilter;
+import com.test.dog.dto.DogPage;
+import com.test.dog.dto.DogPatch;
 import com.test.dog.model.Dog;
 import com.test.dog.service.DogApiService;
+import com.test.dog.service.DogBatchService;
+import com.test.dog.service.DogExportService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
-import java.util.Map;
 
 @RestController
 @RequestMapping("/dogs")
@@ -15,40 +22,85 @@ public class DogController {
 
     @Autowired
     private DogApiService dogApiService;
+    @Autowired
+    private DogBatchService dogBatchService;
+    @Autowired
+    private DogExportService dogExportService;
 
-    public DogController(DogApiService dogApiService) {
+    public DogController(DogApiService dogApiService, DogBatchService dogBatchService, DogExportService dogExportService) {
         this.dogApiService = dogApiService;
+        this.dogBatchService = dogBatchService;
+        this.dogExportService = dogExportService;
     }
 
-    @GetMapping("/dog-breeds")
-    public ResponseEntity<Map<String, List<String>>> getDogBreeds() {
-        return ResponseEntity.ok(dogApiService.getDogBreeds());
+    @GetMapping
+    public DogPage findAll(@RequestParam(required = false) Long afterId,
+                           @RequestParam(defaultValue = "20") int limit,
+                           @RequestParam(required = false) String breed,
+                           @RequestParam(required = false) String color,
+                           @RequestParam(required = false) Integer minAge,
+                           @RequestParam(required = false) Integer maxAge) {
+        return dogApiService.listDogs(new DogFilter(breed, color, minAge, maxAge), afterId, limit);
     }
 
-    @GetMapping("/dog-breeds/{breed}")
-    public List<String> getDogSubBreeds(@PathVariable String breed) {
-        return dogApiService.getDogSubBreeds(breed);
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format) {
+        DogExportService.Format exportFormat = DogExportService.Format.of(format);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .body(out -> dogExportService.export(exportFormat, out));
     }
 
+    // the dog's version is its ETag; sent back as If-Match, it turns a write into a conditional
+    // one that fails with 412 if the dog has changed since
     @GetMapping("/{id}")
-    public Dog findById(@PathVariable Long id) {
-        return dogApiService.getDogById(id);
+    public ResponseEntity<Dog> findById(@PathVariable Long id) {
+        Dog dog = dogApiService.getDogById(id);
+        return DogETags.tagged(ResponseEntity.ok(), dog).body(dog);
     }
 
+    // 202 when the write is queued (dog.write-behind.enabled) rather than already stored
     @PostMapping
-    public Dog save(@RequestBody Dog dog) {
-        return dogApiService.createDog(dog);
+    public ResponseEntity<Dog> save(@RequestBody Dog dog) {
+        return written(dogApiService.createDog(dog));
     }
 
     @PutMapping("/{id}")
-    public Dog update(@PathVariable Long id, @RequestBody Dog dog) {
-        return dogApiService.updateDog(id, dog);
+    public ResponseEntity<Dog> update(@PathVariable Long id, @RequestBody Dog dog,
+                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return written(dogApiService.updateDog(id, dog, DogETags.expectedVersion(ifMatch)));
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<Dog> patch(@PathVariable Long id, @RequestBody DogPatch patch,
+                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return written(dogApiService.patchDog(id, patch, DogETags.expectedVersion(ifMatch)));
     }
 
     @DeleteMapping("/{id}")
-    public void deleteById(@PathVariable Long id) {
-        dogApiService.deleteDog(id);
+    public ResponseEntity<?> deleteById(@PathVariable Long id,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return dogApiService.deleteDog(id, DogETags.expectedVersion(ifMatch));
     }
 
-}
+    @PostMapping("/batch")
+    public DogBatchResponse saveAll(@RequestBody List<Dog> dogs) {
+        return dogBatchService.createDogs(dogs);
+    }
 
+    @PutMapping("/batch")
+    public DogBatchResponse updateAll(@RequestBody List<Dog> dogs) {
+        return dogBatchService.updateDogs(dogs);
+    }
+
+    @DeleteMapping("/batch")
+    public DogBatchResponse deleteAll(@RequestBody List<Long> ids) {
+        return dogBatchService.deleteDogs(ids);
+    }
+
+    private ResponseEntity<Dog> written(Dog dog) {
+        ResponseEntity.BodyBuilder builder = dogApiService.isWriteBehind() ? ResponseEntity.accepted() : ResponseEntity.ok();
+        return DogETags.tagged(builder, dog).body(dog);
+    }
+
+}
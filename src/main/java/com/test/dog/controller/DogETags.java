@@ -0,0 +1,38 @@
+package com.test.dog.controller;
+
+import com.test.dog.handler.DogVersionConflictException;
+import com.test.dog.model.Dog;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * A dog's version as its ETag, and an If-Match header back to the version it names. If-Match
+ * takes the strong comparison, so a weak tag, a list or anything else that is not one of our
+ * tags can never match and gets a 412; "*" or no header at all means any version.
+ */
+final class DogETags {
+
+    private DogETags() {
+    }
+
+    static ResponseEntity.BodyBuilder tagged(ResponseEntity.BodyBuilder builder, Dog dog) {
+        if (dog != null && dog.getVersion() != null) {
+            builder.eTag("\"" + dog.getVersion() + "\"");
+        }
+        return builder;
+    }
+
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.valueOf(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // not a tag we handed out
+            }
+        }
+        throw new DogVersionConflictException("If-Match " + ifMatch + " does not name a version of this dog");
+    }
+}
@@ -0,0 +1,80 @@
+package com.test.dog.controller;
+
+import com.test.dog.dto.CacheStatsResponse;
+import com.test.dog.dto.CircuitBreakerStatsResponse;
+import com.test.dog.dto.MirrorSyncStatsResponse;
+import com.test.dog.dto.RegionCacheStatsResponse;
+import com.test.dog.dto.SingleFlightStatsResponse;
+import com.test.dog.dto.UpstreamPoolStatsResponse;
+import com.test.dog.service.BreedCatalogCache;
+import com.test.dog.service.BreedMirrorSync;
+import com.test.dog.service.DogApiClient;
+import jakarta.persistence.EntityManagerFactory;
+import okhttp3.OkHttpClient;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+@RestController
+@RequestMapping("/stats")
+public class StatsController {
+
+    private final BreedCatalogCache breedCatalogCache;
+    private final DogApiClient dogApiClient;
+    private final OkHttpClient okHttpClient;
+    private final Statistics hibernateStatistics;
+    private final BreedMirrorSync breedMirrorSync;
+
+    public StatsController(BreedCatalogCache breedCatalogCache, DogApiClient dogApiClient, OkHttpClient okHttpClient,
+                           EntityManagerFactory entityManagerFactory, BreedMirrorSync breedMirrorSync) {
+        this.breedCatalogCache = breedCatalogCache;
+        this.breedMirrorSync = breedMirrorSync;
+        this.dogApiClient = dogApiClient;
+        this.okHttpClient = okHttpClient;
+        this.hibernateStatistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @GetMapping("/cache")
+    public Map<String, CacheStatsResponse> getCacheStats() {
+        return breedCatalogCache.stats();
+    }
+
+    @GetMapping("/upstream-pool")
+    public UpstreamPoolStatsResponse getUpstreamPoolStats() {
+        return UpstreamPoolStatsResponse.of(okHttpClient);
+    }
+
+    @GetMapping("/single-flight")
+    public SingleFlightStatsResponse getSingleFlightStats() {
+        return dogApiClient.singleFlightStats();
+    }
+
+    @GetMapping("/circuit-breakers")
+    public Map<String, CircuitBreakerStatsResponse> getCircuitBreakerStats() {
+        return dogApiClient.circuitBreakerStats();
+    }
+
+    @GetMapping("/second-level-cache")
+    public Map<String, RegionCacheStatsResponse> getSecondLevelCacheStats() {
+        Map<String, RegionCacheStatsResponse> stats = new TreeMap<>();
+        for (String region : hibernateStatistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = hibernateStatistics.getCacheRegionStatistics(region);
+            if (regionStatistics != null) {
+                stats.put(region, RegionCacheStatsResponse.of(regionStatistics));
+            }
+        }
+        return stats;
+    }
+
+    @GetMapping("/mirror")
+    public MirrorSyncStatsResponse getMirrorSyncStats() {
+        return breedMirrorSync.stats();
+    }
+
+}
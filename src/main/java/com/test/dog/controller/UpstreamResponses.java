@@ -0,0 +1,255 @@
+package com.test.dog.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.test.dog.dto.UpstreamResult;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Turns upstream data into a response, flagging last-known-good fallbacks with a header.
+ * Each result is serialized once per format, keyed on its identity: the service hands out the
+ * same result for as long as the underlying data is cached, so a response is rebuilt only when
+ * the data changes. The format follows Accept: JSON, or the binary Smile or CBOR encodings,
+ * which are smaller and cheaper to parse on mobile clients. Each is kept as bytes, plus a gzip
+ * copy made on first use once it is at least server.compression.min-response-size, under its own
+ * strong ETag; a matching If-None-Match gets a 304 with no body.
+ */
+final class UpstreamResponses {
+
+    static final String STALE_HEADER = "X-Dog-Data-Stale";
+    static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    private final List<Format> formats;
+    private final int minCompressSize;
+    private final Cache<UpstreamResult<?>, Prepared> prepared = Caffeine.newBuilder().weakKeys().build();
+
+    UpstreamResponses(Jackson2ObjectMapperBuilder jackson, DataSize minCompressSize) {
+        // JSON first: it is the answer to */*, and to Accept headers none of these satisfy
+        this.formats = List.of(
+                new Format(MediaType.APPLICATION_JSON, jackson.build().writer()),
+                new Format(APPLICATION_SMILE, jackson.factory(new SmileFactory()).build().writer()),
+                new Format(MediaType.APPLICATION_CBOR, jackson.factory(new CBORFactory()).build().writer()));
+        this.minCompressSize = (int) Math.min(minCompressSize.toBytes(), Integer.MAX_VALUE);
+    }
+
+    ResponseEntity<byte[]> ok(UpstreamResult<?> result, HttpHeaders request) {
+        int format = negotiate(request.getFirst(HttpHeaders.ACCEPT));
+        Representation response = prepared.get(result, key -> new Prepared(formats.size()))
+                .get(format, () -> prepare(formats.get(format), result));
+        boolean gzip = response.compressible && acceptsGzip(request.getFirst(HttpHeaders.ACCEPT_ENCODING));
+        String etag = gzip ? response.gzipEtag : response.etag;
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        headers.setVary(List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING));
+        if (result.isStale()) {
+            headers.set(STALE_HEADER, "true");
+        }
+        String ifNoneMatch = request.getFirst(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && response.matches(ifNoneMatch)) {
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
+        headers.setContentType(formats.get(format).mediaType);
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return new ResponseEntity<>(gzip ? response.gzip() : response.bytes, headers, HttpStatus.OK);
+    }
+
+    /**
+     * For data that differs on every request, such as random draws: no ETag, no digest and
+     * nothing kept. The message converters pick the format and write it straight to the
+     * response, and the server compresses it.
+     */
+    static <T> ResponseEntity<T> uncached(UpstreamResult<T> result) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(CacheControl.noStore());
+        if (result.isStale()) {
+            headers.set(STALE_HEADER, "true");
+        }
+        return new ResponseEntity<>(result.getBody(), headers, HttpStatus.OK);
+    }
+
+    private Representation prepare(Format format, UpstreamResult<?> result) {
+        try {
+            return new Representation(format.writer.writeValueAsBytes(result.getBody()), minCompressSize);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Index of the format with the highest quality in Accept, each format taking the quality of
+     * the most specific range that covers it; ties and unusable headers go to JSON.
+     */
+    private int negotiate(String accept) {
+        if (accept == null) {
+            return 0;
+        }
+        List<MediaType> ranges;
+        try {
+            ranges = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return 0;
+        }
+        int best = 0;
+        double bestQuality = 0;
+        for (int i = 0; i < formats.size(); i++) {
+            MediaType type = formats.get(i).mediaType;
+            int specificity = -1;
+            double quality = 0;
+            for (MediaType range : ranges) {
+                int rangeSpecificity = range.isWildcardType() ? 0 : range.isWildcardSubtype() ? 1 : 2;
+                if (range.includes(type) && rangeSpecificity > specificity) {
+                    specificity = rangeSpecificity;
+                    quality = range.getQualityValue();
+                }
+            }
+            if (quality > bestQuality) {
+                best = i;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Whether Accept-Encoding allows gzip: an explicit gzip entry decides by its q-value, whatever
+     * its position, and only without one does {@code *} decide. A q-value of 0 refuses the coding.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzip = -1;
+        double any = -1;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip")) {
+                gzip = Math.max(gzip, quality(parts));
+            } else if (name.equals("*")) {
+                any = Math.max(any, quality(parts));
+            }
+        }
+        return (gzip >= 0 ? gzip : any) > 0;
+    }
+
+    // the q parameter of one Accept-Encoding entry; 1 when absent, 0 when it cannot be read
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String[] param = parts[i].split("=", 2);
+            if (param.length == 2 && param[0].trim().equalsIgnoreCase("q")) {
+                try {
+                    double q = Double.parseDouble(param[1].trim());
+                    return q >= 0 && q <= 1 ? q : 0;
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private record Format(MediaType mediaType, ObjectWriter writer) {
+    }
+
+    // one slot per format, filled on first request for it; a racing thread may serialize the same twice
+    private static final class Prepared {
+        private final AtomicReferenceArray<Representation> byFormat;
+
+        Prepared(int formats) {
+            this.byFormat = new AtomicReferenceArray<>(formats);
+        }
+
+        Representation get(int format, Supplier<Representation> prepare) {
+            Representation representation = byFormat.get(format);
+            if (representation == null) {
+                representation = prepare.get();
+                byFormat.set(format, representation);
+            }
+            return representation;
+        }
+    }
+
+    private static final class Representation {
+        final byte[] bytes;
+        final String etag;
+        // the gzip body is another representation, so it gets its own strong tag
+        final String gzipEtag;
+        // below the threshold gzip saves too little to pay for its header and the CPU
+        final boolean compressible;
+        private volatile byte[] gzip;
+
+        Representation(byte[] bytes, int minCompressSize) {
+            this.bytes = bytes;
+            String hash = sha256(bytes);
+            this.etag = "\"" + hash + "\"";
+            this.gzipEtag = "\"" + hash + "-gzip\"";
+            this.compressible = bytes.length >= minCompressSize;
+        }
+
+        byte[] gzip() {
+            byte[] compressed = gzip;
+            if (compressed == null) {
+                compressed = compress(bytes);
+                gzip = compressed;
+            }
+            return compressed;
+        }
+
+        boolean matches(String ifNoneMatch) {
+            for (String tag : ifNoneMatch.split(",")) {
+                String candidate = tag.trim();
+                if (candidate.startsWith("W/")) {
+                    // If-None-Match uses the weak comparison
+                    candidate = candidate.substring(2);
+                }
+                if (candidate.equals("*") || candidate.equals(etag) || candidate.equals(gzipEtag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static String sha256(byte[] bytes) {
+            try {
+                return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes), 0, 16);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private static byte[] compress(byte[] bytes) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.test.dog.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BreedSearchHit {
+    // "terrier" or "terrier-yorkshire", as used in /dogs/dog-breeds/{breed}
+    private String name;
+    private String breed;
+    private String subBreed;
+    // PREFIX or FUZZY
+    private String match;
+}
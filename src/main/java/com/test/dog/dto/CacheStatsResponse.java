@@ -0,0 +1,25 @@
+package com.test.dog.dto;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsResponse {
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long loadFailureCount;
+    private long evictionCount;
+    private long size;
+
+    public static CacheStatsResponse of(AsyncCache<?, ?> cache) {
+        CacheStats stats = cache.synchronous().stats();
+        return new CacheStatsResponse(stats.hitCount(), stats.missCount(), stats.hitRate(),
+                stats.loadFailureCount(), stats.evictionCount(), cache.synchronous().estimatedSize());
+    }
+}
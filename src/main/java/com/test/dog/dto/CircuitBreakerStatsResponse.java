@@ -0,0 +1,15 @@
+package com.test.dog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CircuitBreakerStatsResponse {
+    private String state;
+    private int consecutiveFailures;
+    private int availableBulkheadPermits;
+    private long rejectedCalls;
+}
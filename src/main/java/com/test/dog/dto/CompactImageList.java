@@ -0,0 +1,224 @@
+package com.test.dog.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.json.UTF8JsonGenerator;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Read-only list of image URLs that keeps the prefix they share (e.g.
+ * "https://images.dog.ceo/breeds/terrier") once and the rest of each URL as UTF-8 in one byte
+ * array with an offset index: a few dozen bytes per image instead of a String object, its
+ * backing array and a list slot. Strings are only made by {@link #get}; JSON output is written
+ * straight from the bytes.
+ */
+@JsonSerialize(using = CompactImageList.Serializer.class)
+public final class CompactImageList extends AbstractList<String> implements RandomAccess {
+
+    private static final CompactImageList EMPTY = new CompactImageList(new byte[0], new byte[0], new int[1]);
+
+    private final String prefix;
+    private final byte[] prefixBytes;
+    private final byte[] suffixes;
+    // suffix i spans offsets[i] until offsets[i + 1]
+    private final int[] offsets;
+
+    private CompactImageList(byte[] prefixBytes, byte[] suffixes, int[] offsets) {
+        this.prefix = new String(prefixBytes, StandardCharsets.UTF_8);
+        this.prefixBytes = prefixBytes;
+        this.suffixes = suffixes;
+        this.offsets = offsets;
+    }
+
+    /**
+     * The list itself if it is already compact, otherwise a compact copy.
+     */
+    public static CompactImageList copyOf(List<String> urls) {
+        if (urls instanceof CompactImageList compact) {
+            return compact;
+        }
+        Builder builder = new Builder(urls.size());
+        for (String url : urls) {
+            builder.add(url);
+        }
+        return builder.build();
+    }
+
+    @Override
+    public String get(int index) {
+        int start = offsets[index];
+        return prefix.concat(new String(suffixes, start, offsets[index + 1] - start, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Collects URLs as UTF-8 and works out their common prefix as they come in.
+     */
+    public static final class Builder {
+
+        private byte[] bytes;
+        private int length;
+        private int[] ends;
+        private int size;
+        private int common;
+
+        public Builder(int expectedSize) {
+            this.bytes = new byte[Math.max(64, expectedSize * 64)];
+            this.ends = new int[Math.max(8, expectedSize)];
+        }
+
+        public Builder add(String url) {
+            byte[] utf8 = url.getBytes(StandardCharsets.UTF_8);
+            return add(utf8, 0, utf8.length);
+        }
+
+        /**
+         * Adds a URL from characters, e.g. the parser's text buffer, without making a String
+         * when they are all ASCII.
+         */
+        public Builder add(char[] chars, int offset, int count) {
+            ensureCapacity(count);
+            for (int i = 0; i < count; i++) {
+                char c = chars[offset + i];
+                if (c >= 0x80) {
+                    return add(new String(chars, offset, count));
+                }
+                bytes[length + i] = (byte) c;
+            }
+            return append(count);
+        }
+
+        public Builder add(byte[] utf8, int offset, int count) {
+            ensureCapacity(count);
+            System.arraycopy(utf8, offset, bytes, length, count);
+            return append(count);
+        }
+
+        private Builder append(int count) {
+            if (size == 0) {
+                common = count;
+            } else {
+                int max = Math.min(common, count);
+                int i = 0;
+                while (i < max && bytes[i] == bytes[length + i]) {
+                    i++;
+                }
+                common = i;
+            }
+            if (size == ends.length) {
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            length += count;
+            ends[size++] = length;
+            return this;
+        }
+
+        private void ensureCapacity(int count) {
+            if (length + count > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + count));
+            }
+        }
+
+        public CompactImageList build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            int prefixLength = common;
+            // never split a multi-byte character between prefix and suffix
+            while (prefixLength > 0 && prefixLength < ends[0] && (bytes[prefixLength] & 0xC0) == 0x80) {
+                prefixLength--;
+            }
+            byte[] suffixes = new byte[length - size * prefixLength];
+            int[] offsets = new int[size + 1];
+            int start = 0;
+            for (int i = 0; i < size; i++) {
+                int suffixLength = ends[i] - start - prefixLength;
+                System.arraycopy(bytes, start + prefixLength, suffixes, offsets[i], suffixLength);
+                offsets[i + 1] = offsets[i] + suffixLength;
+                start = ends[i];
+            }
+            return new CompactImageList(Arrays.copyOf(bytes, prefixLength), suffixes, offsets);
+        }
+    }
+
+    /**
+     * Writes each URL from the stored bytes when the generator takes UTF-8 directly.
+     */
+    public static class Serializer extends StdSerializer<CompactImageList> {
+
+        public Serializer() {
+            super(CompactImageList.class);
+        }
+
+        @Override
+        public void serialize(CompactImageList list, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            int size = list.size();
+            gen.writeStartArray(list, size);
+            // generators that take UTF-8 bytes as is; the others need each URL as a String
+            if (gen instanceof UTF8JsonGenerator || gen instanceof SmileGenerator || gen instanceof CBORGenerator) {
+                byte[] prefix = list.prefixBytes;
+                byte[] url = new byte[prefix.length + 64];
+                System.arraycopy(prefix, 0, url, 0, prefix.length);
+                for (int i = 0; i < size; i++) {
+                    int start = list.offsets[i];
+                    int suffixLength = list.offsets[i + 1] - start;
+                    if (prefix.length + suffixLength > url.length) {
+                        url = Arrays.copyOf(url, prefix.length + suffixLength);
+                    }
+                    System.arraycopy(list.suffixes, start, url, prefix.length, suffixLength);
+                    gen.writeUTF8String(url, 0, prefix.length + suffixLength);
+                }
+            } else {
+                for (int i = 0; i < size; i++) {
+                    gen.writeString(list.get(i));
+                }
+            }
+            gen.writeEndArray();
+        }
+    }
+
+    /**
+     * Reads a JSON array of URLs straight into a compact list.
+     */
+    public static class Deserializer extends StdDeserializer<List<String>> {
+
+        public Deserializer() {
+            super(List.class);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public List<String> deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (!p.isExpectedStartArrayToken()) {
+                return (List<String>) ctxt.handleUnexpectedToken(List.class, p);
+            }
+            Builder builder = new Builder(16);
+            JsonToken token;
+            while ((token = p.nextToken()) != JsonToken.END_ARRAY) {
+                if (token != JsonToken.VALUE_STRING) {
+                    return (List<String>) ctxt.handleUnexpectedToken(String.class, p);
+                }
+                builder.add(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+            }
+            return builder.build();
+        }
+    }
+}
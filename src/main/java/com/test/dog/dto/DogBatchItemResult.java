@@ -0,0 +1,25 @@
+package com.test.dog.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DogBatchItemResult {
+
+    public enum Status { CREATED, UPDATED, DELETED, NOT_FOUND, INVALID, FAILED }
+
+    // Position of the item in the request.
+    private int index;
+    private Long id;
+    private Status status;
+    private String error;
+
+    @JsonIgnore
+    public boolean isSuccessful() {
+        return status == Status.CREATED || status == Status.UPDATED || status == Status.DELETED;
+    }
+}
@@ -0,0 +1,21 @@
+package com.test.dog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DogBatchResponse {
+    private int succeeded;
+    private int failed;
+    private List<DogBatchItemResult> items;
+
+    public static DogBatchResponse of(List<DogBatchItemResult> items) {
+        int succeeded = (int) items.stream().filter(DogBatchItemResult::isSuccessful).count();
+        return new DogBatchResponse(succeeded, items.size() - succeeded, items);
+    }
+}
@@ -0,0 +1,15 @@
+package com.test.dog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DogFilter {
+    private String breed;
+    private String color;
+    private Integer minAge;
+    private Integer maxAge;
+}
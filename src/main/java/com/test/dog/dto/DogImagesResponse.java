@@ -1,5 +1,6 @@
 package com.test.dog.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -10,5 +11,6 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 public class DogImagesResponse {
+    @JsonDeserialize(using = CompactImageList.Deserializer.class)
     private List<String> message;
 }
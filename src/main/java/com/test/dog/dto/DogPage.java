@@ -0,0 +1,16 @@
+package com.test.dog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DogPage {
+    private List<DogSummary> items;
+    // Pass as afterId to get the next page; null on the last page.
+    private Long nextAfterId;
+}
@@ -0,0 +1,35 @@
+package com.test.dog.dto;
+
+import com.test.dog.model.Dog;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Body of PATCH /dogs/{id}: the fields to change. Fields left out, or null, keep their value.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DogPatch {
+
+    private String name;
+    private String breed;
+    private Integer age;
+    private String color;
+
+    public void applyTo(Dog dog) {
+        if (name != null) {
+            dog.setName(name);
+        }
+        if (breed != null) {
+            dog.setBreed(breed);
+        }
+        if (age != null) {
+            dog.setAge(age);
+        }
+        if (color != null) {
+            dog.setColor(color);
+        }
+    }
+}
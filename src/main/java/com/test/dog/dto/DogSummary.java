@@ -0,0 +1,19 @@
+package com.test.dog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Read-only view of a dog row, built straight from query results without a managed entity.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DogSummary {
+    private Long id;
+    private String name;
+    private String breed;
+    private int age;
+    private String color;
+}
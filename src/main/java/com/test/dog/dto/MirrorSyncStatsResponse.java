@@ -0,0 +1,22 @@
+package com.test.dog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MirrorSyncStatsResponse {
+    private Instant lastStartedAt;
+    private Instant lastCompletedAt;
+    // The last run that could not fetch the catalog, and why.
+    private Instant lastFailedAt;
+    private String lastFailure;
+    // From the last completed run.
+    private int breedsChanged;
+    private int imageListsChanged;
+    private int failedBreeds;
+}
@@ -0,0 +1,23 @@
+package com.test.dog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.stat.CacheRegionStatistics;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegionCacheStatsResponse {
+    private long hitCount;
+    private long missCount;
+    private long putCount;
+    private double hitRate;
+    private long size;
+
+    public static RegionCacheStatsResponse of(CacheRegionStatistics stats) {
+        long lookups = stats.getHitCount() + stats.getMissCount();
+        return new RegionCacheStatsResponse(stats.getHitCount(), stats.getMissCount(), stats.getPutCount(),
+                lookups == 0 ? 0 : (double) stats.getHitCount() / lookups, stats.getElementCountInMemory());
+    }
+}
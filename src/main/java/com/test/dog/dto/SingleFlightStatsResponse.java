@@ -0,0 +1,18 @@
+package com.test.dog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SingleFlightStatsResponse {
+    // Completed upstream calls and the callers they served; absorbed = callers that did not start their own call.
+    private long flights;
+    private long callers;
+    private long absorbedCallers;
+    private double averageCallersPerFlight;
+    private long maxCallersPerFlight;
+    private int inFlight;
+}
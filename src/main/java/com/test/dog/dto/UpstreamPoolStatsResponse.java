@@ -0,0 +1,25 @@
+package com.test.dog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import okhttp3.OkHttpClient;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpstreamPoolStatsResponse {
+    private int connectionCount;
+    private int idleConnectionCount;
+    private int runningCalls;
+    private int queuedCalls;
+    private int maxRequests;
+    private int maxRequestsPerHost;
+
+    public static UpstreamPoolStatsResponse of(OkHttpClient client) {
+        return new UpstreamPoolStatsResponse(client.connectionPool().connectionCount(),
+                client.connectionPool().idleConnectionCount(),
+                client.dispatcher().runningCallsCount(), client.dispatcher().queuedCallsCount(),
+                client.dispatcher().getMaxRequests(), client.dispatcher().getMaxRequestsPerHost());
+    }
+}
@@ -0,0 +1,27 @@
+package com.test.dog.dto;
+
+import lombok.Value;
+
+import java.util.function.Function;
+
+/**
+ * Data obtained from dog.ceo, flagged as stale when it is the last known good copy served
+ * because the upstream is currently unavailable.
+ */
+@Value
+public class UpstreamResult<T> {
+    T body;
+    boolean stale;
+
+    public static <T> UpstreamResult<T> fresh(T body) {
+        return new UpstreamResult<>(body, false);
+    }
+
+    public static <T> UpstreamResult<T> stale(T body) {
+        return new UpstreamResult<>(body, true);
+    }
+
+    public <R> UpstreamResult<R> map(Function<? super T, ? extends R> mapper) {
+        return new UpstreamResult<>(mapper.apply(body), stale);
+    }
+}
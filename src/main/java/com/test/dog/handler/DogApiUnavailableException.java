@@ -0,0 +1,11 @@
+package com.test.dog.handler;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class DogApiUnavailableException extends RuntimeException {
+    public DogApiUnavailableException(String message) {
+        super(message);
+    }
+}
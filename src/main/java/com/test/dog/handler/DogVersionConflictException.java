@@ -0,0 +1,15 @@
+package com.test.dog.handler;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class DogVersionConflictException extends RuntimeException {
+    public DogVersionConflictException(Long id, Long expectedVersion) {
+        super("Dog with id: " + id + " is no longer at version " + expectedVersion + "; fetch it again and retry");
+    }
+
+    public DogVersionConflictException(String message) {
+        super(message);
+    }
+}
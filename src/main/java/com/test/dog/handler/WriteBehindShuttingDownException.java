@@ -0,0 +1,11 @@
+package com.test.dog.handler;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class WriteBehindShuttingDownException extends RuntimeException {
+    public WriteBehindShuttingDownException() {
+        super("Shutting down; no more writes are being taken");
+    }
+}
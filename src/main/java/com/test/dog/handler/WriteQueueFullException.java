@@ -0,0 +1,11 @@
+package com.test.dog.handler;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class WriteQueueFullException extends RuntimeException {
+    public WriteQueueFullException(int capacity) {
+        super("Write queue is full (" + capacity + " pending writes); retry later");
+    }
+}
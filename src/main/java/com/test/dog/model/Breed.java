@@ -0,0 +1,26 @@
+package com.test.dog.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A breed in the local mirror of the dog.ceo catalog.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "mirror_breeds")
+public class Breed {
+
+    @Id
+    private String name;
+
+    // Set once the breed's image list has been mirrored; until then images are read from upstream.
+    private boolean imagesMirrored;
+
+}
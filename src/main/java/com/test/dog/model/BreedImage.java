@@ -0,0 +1,32 @@
+package com.test.dog.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "mirror_breed_images",
+        uniqueConstraints = @UniqueConstraint(name = "uk_mirror_breed_images_breed_url", columnNames = {"breed", "url"}),
+        indexes = @Index(name = "idx_mirror_breed_images_breed_position", columnList = "breed, position"))
+public class BreedImage implements MirroredEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "mirror_breed_images_seq")
+    @SequenceGenerator(name = "mirror_breed_images_seq", sequenceName = "mirror_breed_images_seq", allocationSize = 50)
+    private Long id;
+
+    private String breed;
+
+    private String url;
+
+    private int position;
+
+    @Override
+    public String key() {
+        return url;
+    }
+}
@@ -1,22 +1,41 @@
 package com.test.dog.model;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 @Entity
+@Cacheable
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "dogs")
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "dogs")
+@Table(name = "dogs", indexes = {
+        // keyset listing: each filter column followed by id, the seek key
+        @Index(name = "idx_dogs_breed_id", columnList = "breed, id"),
+        @Index(name = "idx_dogs_color_id", columnList = "color, id"),
+        @Index(name = "idx_dogs_age_id", columnList = "age, id")
+})
 @JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
 public class Dog {
 
+    // Pooled sequence rather than IDENTITY so Hibernate can batch inserts; ids can also be
+    // reserved before the insert, for write-behind.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "dogs_seq")
+    @GenericGenerator(name = "dogs_seq", strategy = "com.test.dog.model.ReservableSequenceGenerator", parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "dogs_seq"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50")
+    })
     private Long id;
 
     @NotBlank(message = "Field cannot be blank")
@@ -30,5 +49,16 @@ public class Dog {
     @NotBlank(message = "Field cannot be blank")
     private String color;
 
+    // Optimistic lock: Hibernate adds "and version = ?" to every update and delete of a dog.
+    // It is sent as the dog's ETag and comes back in If-Match, never from the request body.
+    @Version
+    @EqualsAndHashCode.Exclude
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    public Dog(Long id, String name, String breed, int age, String color) {
+        this(id, name, breed, age, color, null);
+    }
+
 }
 
@@ -0,0 +1,13 @@
+package com.test.dog.model;
+
+/**
+ * One entry of a breed's mirrored list, kept in upstream order by its position.
+ */
+public interface MirroredEntry {
+
+    String key();
+
+    int getPosition();
+
+    void setPosition(int position);
+}
@@ -0,0 +1,40 @@
+package com.test.dog.model;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pooled sequence generator that can hand out an id ahead of the insert. {@link #reserve} takes
+ * the next value from the same pool as ordinary inserts; an entity saved later carrying a
+ * reserved id keeps it instead of getting a new one. Ids that were not reserved here are never
+ * trusted, so a client-supplied id cannot collide with future sequence values.
+ */
+public class ReservableSequenceGenerator extends SequenceStyleGenerator {
+
+    private final Set<Object> reserved = ConcurrentHashMap.newKeySet();
+
+    public Object reserve(SharedSessionContractImplementor session, Object entity) {
+        Object id = super.generate(session, entity);
+        reserved.add(id);
+        return id;
+    }
+
+    /**
+     * Forgets a reserved id once its entity is written, or given up on.
+     */
+    public void release(Object id) {
+        reserved.remove(id);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object entity) {
+        Object id = session.getEntityPersister(null, entity).getIdentifier(entity, session);
+        if (id != null && reserved.contains(id)) {
+            return id;
+        }
+        return super.generate(session, entity);
+    }
+}
@@ -0,0 +1,32 @@
+package com.test.dog.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "mirror_sub_breeds",
+        uniqueConstraints = @UniqueConstraint(name = "uk_mirror_sub_breeds_breed_name", columnNames = {"breed", "name"}),
+        indexes = @Index(name = "idx_mirror_sub_breeds_breed_position", columnList = "breed, position"))
+public class SubBreed implements MirroredEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "mirror_sub_breeds_seq")
+    @SequenceGenerator(name = "mirror_sub_breeds_seq", sequenceName = "mirror_sub_breeds_seq", allocationSize = 50)
+    private Long id;
+
+    private String breed;
+
+    private String name;
+
+    private int position;
+
+    @Override
+    public String key() {
+        return name;
+    }
+}
@@ -0,0 +1,22 @@
+package com.test.dog.repo;
+
+import com.test.dog.model.BreedImage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BreedImageRepository extends JpaRepository<BreedImage, Long> {
+
+    List<BreedImage> findByBreedOrderByPosition(String breed);
+
+    @Query("select i.url from BreedImage i where i.breed = :breed order by i.position")
+    List<String> findUrls(String breed);
+
+    @Modifying
+    @Query("delete from BreedImage i where i.breed = :breed")
+    int deleteByBreed(String breed);
+}
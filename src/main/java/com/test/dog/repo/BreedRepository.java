@@ -0,0 +1,18 @@
+package com.test.dog.repo;
+
+import com.test.dog.model.Breed;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BreedRepository extends JpaRepository<Breed, String> {
+
+    @Query("select b.name from Breed b order by b.name")
+    List<String> findAllNames();
+
+    @Query("select b.name from Breed b where b.imagesMirrored = true")
+    List<String> findNamesWithImages();
+}
@@ -0,0 +1,30 @@
+package com.test.dog.repo;
+
+import com.test.dog.dto.DogFilter;
+import com.test.dog.dto.DogSummary;
+import com.test.dog.model.Dog;
+
+import java.util.List;
+
+public interface DogRepositoryCustom {
+
+    /**
+     * Keyset page: up to {@code limit} dogs matching the filter with an id greater than {@code afterId}, in id order.
+     */
+    List<DogSummary> findPage(DogFilter filter, Long afterId, int limit);
+
+    /**
+     * Writes the dog over the stored one with an {@code update ... where id = ? and version = ?}
+     * and returns it with its new version. The dog must carry the version it was based on. The
+     * stored dog is read from the second-level cache, so a cached dog takes that one statement.
+     * Fails with an {@link org.springframework.dao.OptimisticLockingFailureException} when the dog
+     * has changed since that version, or does not exist.
+     */
+    Dog updateIfVersion(Dog dog);
+
+    /**
+     * Deletes the dog with a {@code delete ... where id = ? and version = ?}, reading and failing
+     * like {@link #updateIfVersion}.
+     */
+    void deleteIfVersion(Long id, Long version);
+}
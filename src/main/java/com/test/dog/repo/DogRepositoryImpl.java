@@ -0,0 +1,86 @@
+package com.test.dog.repo;
+
+import com.test.dog.dto.DogFilter;
+import com.test.dog.dto.DogSummary;
+import com.test.dog.model.Dog;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class DogRepositoryImpl implements DogRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<DogSummary> findPage(DogFilter filter, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<DogSummary> query = cb.createQuery(DogSummary.class);
+        Root<Dog> dog = query.from(Dog.class);
+
+        // only the filters actually given end up in the statement, so the matching index can be used
+        List<Predicate> predicates = new ArrayList<>();
+        if (afterId != null) {
+            predicates.add(cb.greaterThan(dog.get("id"), afterId));
+        }
+        if (filter.getBreed() != null) {
+            predicates.add(cb.equal(dog.get("breed"), filter.getBreed()));
+        }
+        if (filter.getColor() != null) {
+            predicates.add(cb.equal(dog.get("color"), filter.getColor()));
+        }
+        if (filter.getMinAge() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(dog.get("age"), filter.getMinAge()));
+        }
+        if (filter.getMaxAge() != null) {
+            predicates.add(cb.lessThanOrEqualTo(dog.get("age"), filter.getMaxAge()));
+        }
+
+        query.select(cb.construct(DogSummary.class, dog.get("id"), dog.get("name"), dog.get("breed"), dog.get("age"), dog.get("color")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(dog.get("id")));
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    @Transactional
+    public Dog updateIfVersion(Dog dog) {
+        Dog stored = findVersion(dog.getId(), dog.getVersion());
+        stored.setName(dog.getName());
+        stored.setBreed(dog.getBreed());
+        stored.setAge(dog.getAge());
+        stored.setColor(dog.getColor());
+        entityManager.flush();
+        return new Dog(stored.getId(), stored.getName(), stored.getBreed(), stored.getAge(), stored.getColor(), stored.getVersion());
+    }
+
+    @Override
+    @Transactional
+    public void deleteIfVersion(Long id, Long version) {
+        entityManager.remove(findVersion(id, version));
+        entityManager.flush();
+    }
+
+    // The dog as managed entity, normally from the second-level cache. Its flush is a versioned
+    // statement for this row alone, and the cache updates or drops just this dog's entry; a bulk
+    // JPQL statement would evict every cached dog instead.
+    private Dog findVersion(Long id, Long version) {
+        Dog stored = entityManager.find(Dog.class, id);
+        if (stored == null || !stored.getVersion().equals(version)) {
+            throw new ObjectOptimisticLockingFailureException(Dog.class, id);
+        }
+        return stored;
+    }
+}
@@ -0,0 +1,28 @@
+package com.test.dog.repo;
+
+import com.test.dog.model.SubBreed;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SubBreedRepository extends JpaRepository<SubBreed, Long> {
+
+    List<SubBreed> findByBreedOrderByPosition(String breed);
+
+    @Query("select s.name from SubBreed s where s.breed = :breed order by s.position")
+    List<String> findNames(String breed);
+
+    /**
+     * (breed, sub-breed) pairs for every breed, grouped by breed in upstream order.
+     */
+    @Query("select s.breed, s.name from SubBreed s order by s.breed, s.position")
+    List<Object[]> findAllNames();
+
+    @Modifying
+    @Query("delete from SubBreed s where s.breed = :breed")
+    int deleteByBreed(String breed);
+}
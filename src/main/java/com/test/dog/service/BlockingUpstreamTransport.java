@@ -0,0 +1,66 @@
+package com.test.dog.service;
+
+import com.test.dog.config.DogApiProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.*;
+
+/**
+ * Runs {@link RestTemplate} calls on a bounded pool, or on the given executor, each with its own deadline.
+ */
+public class BlockingUpstreamTransport implements UpstreamTransport {
+
+    private final RestTemplate restTemplate;
+    private final Executor executor;
+    private final long timeoutMillis;
+
+    public BlockingUpstreamTransport(RestTemplate restTemplate, DogApiProperties properties) {
+        this(restTemplate, newExecutor(properties.getFetch()), properties);
+    }
+
+    public BlockingUpstreamTransport(RestTemplate restTemplate, Executor executor, DogApiProperties properties) {
+        this.restTemplate = restTemplate;
+        this.executor = executor;
+        this.timeoutMillis = properties.getFetch().getTimeout().toMillis();
+    }
+
+    @Override
+    public <T> CompletableFuture<T> get(String url, Class<T> type) {
+        return CompletableFuture.supplyAsync(() -> restTemplate.getForObject(url, type), executor)
+                .orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .exceptionallyCompose(ex -> CompletableFuture.failedFuture(ex instanceof TimeoutException
+                        ? timeout(url)
+                        : ex));
+    }
+
+    private ResourceAccessException timeout(String url) {
+        String message = "Timed out after " + timeoutMillis + " ms: GET " + url;
+        // same cause type OkHttp reports for a call timeout, so both transports are counted as TIMEOUT
+        return new ResourceAccessException(message, new InterruptedIOException(message));
+    }
+
+    private static ExecutorService newExecutor(DogApiProperties.Fetch fetch) {
+        return new ThreadPoolExecutor(fetch.getPoolSize(), fetch.getPoolSize(), 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(fetch.getQueueCapacity()), new CustomizableThreadFactory("dog-api-"));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (executor instanceof ExecutorService executorService) {
+            new ExecutorServiceMetrics(executorService, "dog-api", Tags.empty()).bindTo(registry);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+}
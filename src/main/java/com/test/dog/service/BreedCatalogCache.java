@@ -0,0 +1,190 @@
+package com.test.dog.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.test.dog.config.DogApiProperties;
+import com.test.dog.config.DogMirrorProperties;
+import com.test.dog.dto.CacheStatsResponse;
+import com.test.dog.dto.CompactImageList;
+import com.test.dog.dto.UpstreamResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * In-process cache in front of {@link DogApiClient} for the data that rarely changes upstream:
+ * the breed catalog and each breed's sub-breed and image lists. Entries past their refresh
+ * interval are still served while a reload runs in the background; entries past their ttl are dropped.
+ * Stale fallbacks are only kept for the circuit breaker's open period, so they are retried soon.
+ * When the mirror is enabled (dog.mirror.enabled), loads read {@link BreedMirror} first and only
+ * go upstream for data it does not hold yet; when it is off, its rows are never read. Image lists are held as {@link CompactImageList}s. Code that derives
+ * data from the catalog can register with {@link #onCatalogChange} to rebuild it whenever a new
+ * catalog is loaded, refreshed or warmed, rather than checking on every read.
+ */
+@Component
+public class BreedCatalogCache implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(BreedCatalogCache.class);
+    private static final String ALL_BREEDS = "all";
+
+    private final AsyncLoadingCache<String, UpstreamResult<Map<String, List<String>>>> breeds;
+    private final AsyncLoadingCache<String, UpstreamResult<List<String>>> subBreeds;
+    private final AsyncLoadingCache<String, UpstreamResult<List<String>>> images;
+    private final List<Consumer<Map<String, List<String>>>> catalogListeners = new CopyOnWriteArrayList<>();
+
+    public BreedCatalogCache(DogApiClient dogApiClient, DogApiProperties properties) {
+        this(dogApiClient, properties, null, new DogMirrorProperties());
+    }
+
+    @Autowired
+    public BreedCatalogCache(DogApiClient dogApiClient, DogApiProperties properties, BreedMirror breedMirror,
+                             DogMirrorProperties mirrorProperties) {
+        // a disabled mirror is no longer synced, so whatever it still holds would be served frozen
+        BreedMirror enabledMirror = mirrorProperties.isEnabled() ? breedMirror : null;
+        DogApiProperties.Cache cache = properties.getCache();
+        long staleTtlNanos = properties.getResilience().getOpenDuration().toNanos();
+        this.breeds = build(cache.getBreeds(), staleTtlNanos, (key, executor) ->
+                mirrorFirst(enabledMirror, BreedMirror::breeds, executor, dogApiClient::fetchBreeds)
+                        .thenApply(this::catalogLoaded));
+        this.subBreeds = build(cache.getSubBreeds(), staleTtlNanos, (breed, executor) ->
+                mirrorFirst(enabledMirror, mirror -> mirror.subBreeds(breed), executor, () -> dogApiClient.fetchSubBreeds(breed)));
+        this.images = build(cache.getImages(), staleTtlNanos, (breed, executor) ->
+                mirrorFirst(enabledMirror, mirror -> mirror.images(breed), executor, () -> dogApiClient.fetchImages(breed))
+                        .thenApply(result -> result.<List<String>>map(CompactImageList::copyOf)));
+    }
+
+    public CompletableFuture<UpstreamResult<Map<String, List<String>>>> breeds() {
+        return breeds.get(ALL_BREEDS);
+    }
+
+    public CompletableFuture<UpstreamResult<List<String>>> subBreeds(String breed) {
+        return subBreeds.get(breed);
+    }
+
+    public CompletableFuture<UpstreamResult<List<String>>> images(String breed) {
+        return images.get(breed);
+    }
+
+    /**
+     * Calls the listener with each catalog as it is loaded, refreshed or warmed, on the thread
+     * that completed it, and right away with the current one if it is already there. A listener
+     * that throws is logged; the catalog is still loaded and served.
+     */
+    public void onCatalogChange(Consumer<Map<String, List<String>>> listener) {
+        catalogListeners.add(listener);
+        CompletableFuture<UpstreamResult<Map<String, List<String>>>> current = breeds.getIfPresent(ALL_BREEDS);
+        if (current != null && current.isDone() && !current.isCompletedExceptionally()) {
+            notify(listener, current.join().getBody());
+        }
+    }
+
+    /**
+     * Seeds the catalog and every breed's sub-breeds, e.g. from the mirror at startup.
+     */
+    public void warmCatalog(Map<String, List<String>> catalog) {
+        breeds.put(ALL_BREEDS, CompletableFuture.completedFuture(catalogLoaded(UpstreamResult.fresh(catalog))));
+        catalog.forEach((breed, names) -> subBreeds.put(breed, CompletableFuture.completedFuture(UpstreamResult.fresh(names))));
+    }
+
+    public void warmImages(String breed, List<String> urls) {
+        images.put(breed, CompletableFuture.completedFuture(UpstreamResult.fresh(CompactImageList.copyOf(urls))));
+    }
+
+    /**
+     * Reloads the catalog in the background, serving the current one until it completes, and
+     * drops the entries of breeds that were added, removed or changed so they load afresh.
+     */
+    public void refreshCatalog(Collection<String> changedBreeds) {
+        breeds.synchronous().refresh(ALL_BREEDS);
+        subBreeds.synchronous().invalidateAll(changedBreeds);
+        images.synchronous().invalidateAll(changedBreeds);
+    }
+
+    public void refreshImages(String breed) {
+        images.synchronous().refresh(breed);
+    }
+
+    public Map<String, CacheStatsResponse> stats() {
+        Map<String, CacheStatsResponse> stats = new LinkedHashMap<>();
+        stats.put("breeds", CacheStatsResponse.of(breeds));
+        stats.put("sub-breeds", CacheStatsResponse.of(subBreeds));
+        stats.put("images", CacheStatsResponse.of(images));
+        return stats;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, breeds, "breeds");
+        CaffeineCacheMetrics.monitor(registry, subBreeds, "sub-breeds");
+        CaffeineCacheMetrics.monitor(registry, images, "images");
+    }
+
+    private UpstreamResult<Map<String, List<String>>> catalogLoaded(UpstreamResult<Map<String, List<String>>> catalog) {
+        catalogListeners.forEach(listener -> notify(listener, catalog.getBody()));
+        return catalog;
+    }
+
+    private static void notify(Consumer<Map<String, List<String>>> listener, Map<String, List<String>> catalog) {
+        try {
+            listener.accept(catalog);
+        } catch (RuntimeException e) {
+            log.warn("Catalog listener {} failed; it keeps what it built from the previous catalog", listener, e);
+        }
+    }
+
+    private static <V> CompletableFuture<UpstreamResult<V>> mirrorFirst(BreedMirror breedMirror,
+                                                                        Function<BreedMirror, Optional<V>> read, Executor executor,
+                                                                        Supplier<CompletableFuture<UpstreamResult<V>>> fetch) {
+        if (breedMirror == null) {
+            return fetch.get();
+        }
+        return CompletableFuture.supplyAsync(() -> read.apply(breedMirror), executor)
+                .exceptionally(ex -> Optional.empty())
+                .thenCompose(mirrored -> mirrored.map(value -> CompletableFuture.completedFuture(UpstreamResult.fresh(value)))
+                        .orElseGet(fetch));
+    }
+
+    private static <V> AsyncLoadingCache<String, UpstreamResult<V>> build(DogApiProperties.CacheSpec spec, long staleTtlNanos,
+                                                                         AsyncCacheLoader<String, UpstreamResult<V>> loader) {
+        long ttlNanos = spec.getTtl().toNanos();
+        return Caffeine.newBuilder()
+                .maximumSize(spec.getMaxSize())
+                .expireAfter(new Expiry<String, UpstreamResult<V>>() {
+                    @Override
+                    public long expireAfterCreate(String key, UpstreamResult<V> value, long currentTime) {
+                        return value.isStale() ? staleTtlNanos : ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, UpstreamResult<V> value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, UpstreamResult<V> value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .refreshAfterWrite(spec.getRefreshAfter())
+                .recordStats()
+                .buildAsync(loader);
+    }
+}
@@ -0,0 +1,147 @@
+package com.test.dog.service;
+
+import com.test.dog.model.Breed;
+import com.test.dog.model.BreedImage;
+import com.test.dog.model.MirroredEntry;
+import com.test.dog.model.SubBreed;
+import com.test.dog.repo.BreedImageRepository;
+import com.test.dog.repo.BreedRepository;
+import com.test.dog.repo.SubBreedRepository;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.BiFunction;
+
+/**
+ * The local copy of the dog.ceo catalog: breeds, their sub-breeds and image URLs, in upstream
+ * order. Reads return empty when the mirror does not hold the data yet, so callers can go to
+ * upstream instead. Syncs write only the rows that differ from what upstream sent.
+ */
+@Component
+public class BreedMirror {
+
+    private final BreedRepository breedRepository;
+    private final SubBreedRepository subBreedRepository;
+    private final BreedImageRepository breedImageRepository;
+
+    public BreedMirror(BreedRepository breedRepository, SubBreedRepository subBreedRepository,
+                       BreedImageRepository breedImageRepository) {
+        this.breedRepository = breedRepository;
+        this.subBreedRepository = subBreedRepository;
+        this.breedImageRepository = breedImageRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Map<String, List<String>>> breeds() {
+        List<String> names = breedRepository.findAllNames();
+        if (names.isEmpty()) {
+            return Optional.empty();
+        }
+        Map<String, List<String>> catalog = new LinkedHashMap<>();
+        for (String name : names) {
+            catalog.put(name, new ArrayList<>());
+        }
+        for (Object[] row : subBreedRepository.findAllNames()) {
+            catalog.get((String) row[0]).add((String) row[1]);
+        }
+        return Optional.of(catalog);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<List<String>> subBreeds(String breed) {
+        if (!breedRepository.existsById(breed)) {
+            return Optional.empty();
+        }
+        return Optional.of(subBreedRepository.findNames(breed));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<List<String>> images(String breed) {
+        return breedRepository.findById(breed)
+                .filter(Breed::isImagesMirrored)
+                .map(mirrored -> breedImageRepository.findUrls(breed));
+    }
+
+    @Transactional(readOnly = true)
+    public List<String> breedsWithImages() {
+        return breedRepository.findNamesWithImages();
+    }
+
+    /**
+     * Brings breeds and sub-breeds in line with the upstream catalog.
+     *
+     * @return the breeds that were added, removed or had their sub-breeds changed
+     */
+    @Transactional
+    public Set<String> syncCatalog(Map<String, List<String>> catalog) {
+        Set<String> changed = new TreeSet<>();
+        Set<String> removed = new HashSet<>(breedRepository.findAllNames());
+        for (Map.Entry<String, List<String>> entry : catalog.entrySet()) {
+            String breed = entry.getKey();
+            if (!removed.remove(breed)) {
+                breedRepository.save(new Breed(breed, false));
+                changed.add(breed);
+            }
+            if (reconcile(subBreedRepository, subBreedRepository.findByBreedOrderByPosition(breed), entry.getValue(),
+                    (name, position) -> new SubBreed(null, breed, name, position))) {
+                changed.add(breed);
+            }
+        }
+        for (String breed : removed) {
+            breedImageRepository.deleteByBreed(breed);
+            subBreedRepository.deleteByBreed(breed);
+            breedRepository.deleteById(breed);
+            changed.add(breed);
+        }
+        return changed;
+    }
+
+    /**
+     * Brings one breed's image list in line with upstream. Breeds not in the mirror are skipped.
+     *
+     * @return whether anything was written
+     */
+    @Transactional
+    public boolean syncImages(String breed, List<String> urls) {
+        Optional<Breed> mirrored = breedRepository.findById(breed);
+        if (mirrored.isEmpty()) {
+            return false;
+        }
+        boolean changed = reconcile(breedImageRepository, breedImageRepository.findByBreedOrderByPosition(breed), urls,
+                (url, position) -> new BreedImage(null, breed, url, position));
+        if (!mirrored.get().isImagesMirrored()) {
+            mirrored.get().setImagesMirrored(true);
+            changed = true;
+        }
+        return changed;
+    }
+
+    /**
+     * Inserts entries new upstream, moves those whose position changed and deletes those gone
+     * upstream; entries that are unchanged are not touched.
+     */
+    private static <E extends MirroredEntry> boolean reconcile(JpaRepository<E, Long> repository, List<E> existing,
+                                                               List<String> upstream, BiFunction<String, Integer, E> create) {
+        Map<String, E> remaining = new HashMap<>();
+        for (E entry : existing) {
+            remaining.put(entry.key(), entry);
+        }
+        List<E> written = new ArrayList<>();
+        int position = 0;
+        for (String key : new LinkedHashSet<>(upstream)) {
+            E entry = remaining.remove(key);
+            if (entry == null) {
+                written.add(create.apply(key, position));
+            } else if (entry.getPosition() != position) {
+                entry.setPosition(position);
+                written.add(entry);
+            }
+            position++;
+        }
+        repository.saveAll(written);
+        repository.deleteAll(remaining.values());
+        return !written.isEmpty() || !remaining.isEmpty();
+    }
+}
@@ -0,0 +1,111 @@
+package com.test.dog.service;
+
+import com.test.dog.config.DogMirrorProperties;
+import com.test.dog.dto.MirrorSyncStatsResponse;
+import com.test.dog.dto.UpstreamResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps {@link BreedMirror} in step with dog.ceo on a schedule, and fills the breed cache from
+ * the mirror at startup so the first requests do not wait on the network. A sync fetches the
+ * catalog, then each breed's images one at a time; stale fallbacks are never written to the
+ * mirror, and a breed that fails is left as it was until the next run. A run that cannot get
+ * the catalog is logged and recorded in the stats, and the mirror keeps what it has.
+ */
+@Component
+public class BreedMirrorSync {
+
+    private static final Logger log = LoggerFactory.getLogger(BreedMirrorSync.class);
+    private final DogApiClient dogApiClient;
+    private final BreedMirror breedMirror;
+    private final BreedCatalogCache breedCatalogCache;
+    private final DogMirrorProperties properties;
+
+    private volatile MirrorSyncStatsResponse stats = new MirrorSyncStatsResponse();
+
+    public BreedMirrorSync(DogApiClient dogApiClient, BreedMirror breedMirror, BreedCatalogCache breedCatalogCache,
+                           DogMirrorProperties properties) {
+        this.dogApiClient = dogApiClient;
+        this.breedMirror = breedMirror;
+        this.breedCatalogCache = breedCatalogCache;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        if (!properties.isEnabled() || !properties.isWarmOnStartup()) {
+            return;
+        }
+        breedMirror.breeds().ifPresent(breedCatalogCache::warmCatalog);
+        for (String breed : breedMirror.breedsWithImages()) {
+            breedMirror.images(breed).ifPresent(images -> breedCatalogCache.warmImages(breed, images));
+        }
+    }
+
+    @Scheduled(initialDelayString = "${dog.mirror.initial-delay:PT5S}", fixedDelayString = "${dog.mirror.sync-interval:PT6H}")
+    public void sync() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Instant startedAt = Instant.now();
+        MirrorSyncStatsResponse previous = stats;
+        stats = new MirrorSyncStatsResponse(startedAt, previous.getLastCompletedAt(), previous.getLastFailedAt(),
+                previous.getLastFailure(), previous.getBreedsChanged(), previous.getImageListsChanged(), previous.getFailedBreeds());
+
+        UpstreamResult<Map<String, List<String>>> catalog;
+        Set<String> changedBreeds;
+        try {
+            catalog = DogApiClient.await(dogApiClient.fetchBreeds());
+            if (catalog.isStale()) {
+                failed(startedAt, previous, "dog.ceo is unavailable, only a stale catalog was served");
+                return;
+            }
+            changedBreeds = breedMirror.syncCatalog(catalog.getBody());
+        } catch (RuntimeException e) {
+            failed(startedAt, previous, e.toString());
+            return;
+        }
+        if (!changedBreeds.isEmpty()) {
+            breedCatalogCache.refreshCatalog(changedBreeds);
+        }
+
+        int imageListsChanged = 0;
+        int failedBreeds = 0;
+        for (String breed : catalog.getBody().keySet()) {
+            try {
+                UpstreamResult<List<String>> images = DogApiClient.await(dogApiClient.fetchImages(breed));
+                if (!images.isStale() && breedMirror.syncImages(breed, images.getBody())) {
+                    breedCatalogCache.refreshImages(breed);
+                    imageListsChanged++;
+                }
+            } catch (RuntimeException e) {
+                failedBreeds++;
+            }
+        }
+        if (failedBreeds > 0) {
+            log.warn("Breed mirror sync could not fetch the images of {} of {} breeds", failedBreeds, catalog.getBody().size());
+        }
+        stats = new MirrorSyncStatsResponse(startedAt, Instant.now(), stats.getLastFailedAt(), stats.getLastFailure(),
+                changedBreeds.size(), imageListsChanged, failedBreeds);
+    }
+
+    private void failed(Instant startedAt, MirrorSyncStatsResponse previous, String reason) {
+        log.warn("Breed mirror sync failed, keeping the mirror as it is: {}", reason);
+        stats = new MirrorSyncStatsResponse(startedAt, previous.getLastCompletedAt(), Instant.now(), reason,
+                previous.getBreedsChanged(), previous.getImageListsChanged(), previous.getFailedBreeds());
+    }
+
+    public MirrorSyncStatsResponse stats() {
+        return stats;
+    }
+}
@@ -0,0 +1,198 @@
+package com.test.dog.service;
+
+import com.test.dog.dto.BreedSearchHit;
+
+import java.util.*;
+
+/**
+ * Immutable search index over breed and sub-breed names. Every name is findable as
+ * "breed", "breed-sub", "sub-breed" and "sub", e.g. terrier-yorkshire by "yorkshire-terrier"
+ * or "york". Prefix matches come from binary search in a sorted key array; typo-tolerant
+ * matches from a trigram index, ranked by trigram overlap. Short names share few trigrams once
+ * two letters swap, so candidates that fall under the overlap threshold still match when they
+ * are one or two edits away.
+ */
+public final class BreedSearchIndex {
+
+    public static final BreedSearchIndex EMPTY = new BreedSearchIndex(Map.of());
+
+    private static final String PREFIX = "PREFIX";
+    private static final String FUZZY = "FUZZY";
+    // share of trigrams two names must have in common to count as a fuzzy match
+    private static final double MIN_SIMILARITY = 0.3;
+
+    private final Map<String, List<String>> source;
+    private final BreedSearchHit[] entries;
+    // sorted lookup keys and the entry each one stands for
+    private final String[] keys;
+    private final int[] keyEntries;
+    private final int[] keyGramCounts;
+    private final Map<String, int[]> keysByTrigram;
+
+    public BreedSearchIndex(Map<String, List<String>> catalog) {
+        this.source = catalog;
+        List<BreedSearchHit> entryList = new ArrayList<>();
+        TreeMap<String, Integer> keyMap = new TreeMap<>();
+        for (Map.Entry<String, List<String>> breed : catalog.entrySet()) {
+            String breedName = normalize(breed.getKey());
+            keyMap.putIfAbsent(breedName, entryList.size());
+            entryList.add(new BreedSearchHit(breedName, breedName, null, null));
+            for (String subBreed : breed.getValue()) {
+                String subName = normalize(subBreed);
+                int entry = entryList.size();
+                entryList.add(new BreedSearchHit(breedName + "-" + subName, breedName, subName, null));
+                keyMap.putIfAbsent(breedName + "-" + subName, entry);
+                keyMap.putIfAbsent(subName + "-" + breedName, entry);
+                keyMap.putIfAbsent(subName, entry);
+            }
+        }
+        this.entries = entryList.toArray(new BreedSearchHit[0]);
+        this.keys = keyMap.keySet().toArray(new String[0]);
+        this.keyEntries = keyMap.values().stream().mapToInt(Integer::intValue).toArray();
+
+        this.keyGramCounts = new int[keys.length];
+        Map<String, List<Integer>> postings = new HashMap<>();
+        for (int key = 0; key < keys.length; key++) {
+            Set<String> grams = trigrams(keys[key]);
+            keyGramCounts[key] = grams.size();
+            for (String gram : grams) {
+                postings.computeIfAbsent(gram, g -> new ArrayList<>()).add(key);
+            }
+        }
+        this.keysByTrigram = new HashMap<>(postings.size() * 2);
+        postings.forEach((gram, keyIds) -> keysByTrigram.put(gram, keyIds.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    /**
+     * The catalog this index was built from.
+     */
+    public Map<String, List<String>> getSource() {
+        return source;
+    }
+
+    /**
+     * Prefix matches first, shortest name first, then fuzzy matches by similarity; each name
+     * at most once.
+     */
+    public List<BreedSearchHit> search(String query, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        List<BreedSearchHit> hits = new ArrayList<>(Math.min(limit, 16));
+        BitSet seen = new BitSet(entries.length);
+
+        List<Integer> prefixEntries = new ArrayList<>();
+        for (int key = lowerBound(q); key < keys.length && keys[key].startsWith(q); key++) {
+            if (!seen.get(keyEntries[key])) {
+                seen.set(keyEntries[key]);
+                prefixEntries.add(keyEntries[key]);
+            }
+        }
+        prefixEntries.sort(Comparator.comparingInt((Integer entry) -> entries[entry].getName().length())
+                .thenComparing(entry -> entries[entry].getName()));
+        for (int entry : prefixEntries) {
+            if (hits.size() == limit) {
+                return hits;
+            }
+            hits.add(hit(entry, PREFIX));
+        }
+
+        Set<String> queryGrams = trigrams(q);
+        int[] shared = new int[keys.length];
+        for (String gram : queryGrams) {
+            int[] keyIds = keysByTrigram.get(gram);
+            if (keyIds != null) {
+                for (int key : keyIds) {
+                    shared[key]++;
+                }
+            }
+        }
+        double[] bestByEntry = new double[entries.length];
+        for (int key = 0; key < keys.length; key++) {
+            if (shared[key] > 0) {
+                double similarity = (double) shared[key] / (queryGrams.size() + keyGramCounts[key] - shared[key]);
+                int entry = keyEntries[key];
+                if (similarity < MIN_SIMILARITY) {
+                    int distance = editDistance(q, keys[key], maxEdits(q));
+                    similarity = distance <= maxEdits(q) ? 1 - (double) distance / Math.max(q.length(), keys[key].length()) : 0;
+                }
+                if (similarity >= MIN_SIMILARITY && !seen.get(entry)) {
+                    bestByEntry[entry] = Math.max(bestByEntry[entry], similarity);
+                }
+            }
+        }
+        List<Integer> fuzzyEntries = new ArrayList<>();
+        for (int entry = 0; entry < entries.length; entry++) {
+            if (bestByEntry[entry] > 0) {
+                fuzzyEntries.add(entry);
+            }
+        }
+        fuzzyEntries.sort(Comparator.comparingDouble((Integer entry) -> -bestByEntry[entry])
+                .thenComparing(entry -> entries[entry].getName()));
+        for (int entry : fuzzyEntries) {
+            if (hits.size() == limit) {
+                break;
+            }
+            hits.add(hit(entry, FUZZY));
+        }
+        return hits;
+    }
+
+    private BreedSearchHit hit(int entry, String match) {
+        BreedSearchHit indexed = entries[entry];
+        return new BreedSearchHit(indexed.getName(), indexed.getBreed(), indexed.getSubBreed(), match);
+    }
+
+    private int lowerBound(String prefix) {
+        int index = Arrays.binarySearch(keys, prefix);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private static int maxEdits(String query) {
+        return query.length() <= 5 ? 1 : 2;
+    }
+
+    /**
+     * Optimal string alignment distance, so a swapped pair of letters costs one edit. Gives up
+     * with limit + 1 once the lengths alone rule out a match.
+     */
+    static int editDistance(String a, String b, int limit) {
+        if (Math.abs(a.length() - b.length()) > limit) {
+            return limit + 1;
+        }
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                }
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+
+    static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT).replaceAll("[\\s_-]+", "-");
+    }
+
+    /**
+     * Trigrams of the name padded with a space on each side, so short names and word edges count too.
+     */
+    private static Set<String> trigrams(String name) {
+        String padded = " " + name.replace('-', ' ') + " ";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+}
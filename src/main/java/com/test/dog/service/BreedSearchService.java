@@ -0,0 +1,44 @@
+package com.test.dog.service;
+
+import com.test.dog.dto.BreedSearchHit;
+import com.test.dog.dto.UpstreamResult;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Breed name search over the cached catalog. The index is rebuilt whenever the catalog cache
+ * loads, refreshes or is warmed with a new catalog, on that thread, and swapped in as a whole;
+ * searches only read it. Only a search that comes before the first catalog waits for it.
+ */
+@Service
+public class BreedSearchService {
+
+    public static final int MAX_RESULTS = 50;
+
+    private final BreedCatalogCache breedCatalogCache;
+    private volatile BreedSearchIndex index = BreedSearchIndex.EMPTY;
+
+    public BreedSearchService(BreedCatalogCache breedCatalogCache) {
+        this.breedCatalogCache = breedCatalogCache;
+        breedCatalogCache.onCatalogChange(this::rebuild);
+    }
+
+    public List<BreedSearchHit> search(String query, int limit) {
+        // reading the catalog also starts its background refresh when one is due
+        CompletableFuture<UpstreamResult<Map<String, List<String>>>> catalog = breedCatalogCache.breeds();
+        if (index == BreedSearchIndex.EMPTY) {
+            DogApiClient.await(catalog);
+        }
+        return index.search(query, Math.max(1, Math.min(limit, MAX_RESULTS)));
+    }
+
+    // builds run one at a time, and a catalog the index already covers is not indexed again
+    private synchronized void rebuild(Map<String, List<String>> catalog) {
+        if (index.getSource() != catalog) {
+            index = new BreedSearchIndex(catalog);
+        }
+    }
+}
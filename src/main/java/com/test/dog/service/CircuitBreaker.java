@@ -0,0 +1,121 @@
+package com.test.dog.service;
+
+import com.test.dog.dto.CircuitBreakerStatsResponse;
+import com.test.dog.handler.DogApiUnavailableException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker with a bulkhead for one kind of upstream call. After a run of consecutive
+ * failures the circuit opens and calls are rejected immediately; once the open period has
+ * passed a single trial call decides whether it closes again. Independently, no more than
+ * a fixed number of calls may be in flight at once.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final Semaphore bulkhead;
+    private final LongSupplier nanoClock;
+    private final LongAdder rejectedCalls = new LongAdder();
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+
+    public CircuitBreaker(String name, int failureThreshold, long openNanos, int maxConcurrentCalls) {
+        this(name, failureThreshold, openNanos, maxConcurrentCalls, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, int failureThreshold, long openNanos, int maxConcurrentCalls, LongSupplier nanoClock) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openNanos;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.nanoClock = nanoClock;
+    }
+
+    public <T> CompletableFuture<T> execute(Supplier<CompletableFuture<T>> call) {
+        if (!tryAcquirePermission()) {
+            rejectedCalls.increment();
+            return CompletableFuture.failedFuture(new DogApiUnavailableException("Circuit breaker " + name + " is open"));
+        }
+        if (!bulkhead.tryAcquire()) {
+            rejectedCalls.increment();
+            releasePermission();
+            return CompletableFuture.failedFuture(new DogApiUnavailableException("Too many concurrent " + name + " calls"));
+        }
+        CompletableFuture<T> result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        return result.whenComplete((value, ex) -> {
+            bulkhead.release();
+            if (ex != null && isFailure(ex)) {
+                onFailure();
+            } else {
+                onSuccess();
+            }
+        });
+    }
+
+    /**
+     * Whether an exception means the upstream is unhealthy, as opposed to answering the request
+     * with a client error or a redirect: only 5xx responses and calls that got no response count.
+     */
+    public static boolean isFailure(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        return !(cause instanceof RestClientResponseException) || cause instanceof HttpServerErrorException;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized CircuitBreakerStatsResponse stats() {
+        return new CircuitBreakerStatsResponse(state.name(), consecutiveFailures, bulkhead.availablePermits(), rejectedCalls.sum());
+    }
+
+    private synchronized boolean tryAcquirePermission() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.OPEN && nanoClock.getAsLong() - openedAt >= openNanos) {
+            // let exactly one trial call through
+            state = State.HALF_OPEN;
+            return true;
+        }
+        return false;
+    }
+
+    private synchronized void releasePermission() {
+        if (state == State.HALF_OPEN) {
+            state = State.OPEN;
+        }
+    }
+
+    private synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        state = State.CLOSED;
+    }
+
+    private synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = nanoClock.getAsLong();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.test.dog.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.test.dog.config.DogApiProperties;
+import com.test.dog.dto.*;
+import com.test.dog.handler.DogApiUnavailableException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous access to the dog.ceo API, so callers can start several lookups and wait
+ * for them together. Concurrent requests for the same URL share a single upstream call.
+ * Each endpoint kind sits behind its own circuit breaker; while a call cannot be made or
+ * fails, the last good response for that URL is returned instead, marked as stale.
+ * Upstream latency, breaker state and bulkhead usage are exported as dog.upstream.* meters.
+ */
+@Component
+public class DogApiClient {
+
+    private final String baseUrl;
+    private final UpstreamTransport transport;
+    private final SingleFlight singleFlight = new SingleFlight();
+    private final Map<UpstreamEndpoint, CircuitBreaker> circuitBreakers = new EnumMap<>(UpstreamEndpoint.class);
+    private final Cache<String, Object> lastKnownGood;
+    private final UpstreamMetrics metrics;
+
+    public DogApiClient(UpstreamTransport transport, DogApiProperties properties) {
+        this(transport, properties, new SimpleMeterRegistry());
+    }
+
+    @Autowired
+    public DogApiClient(UpstreamTransport transport, DogApiProperties properties, MeterRegistry meterRegistry) {
+        this.baseUrl = properties.getBaseUrl();
+        this.transport = transport;
+        DogApiProperties.Resilience resilience = properties.getResilience();
+        for (UpstreamEndpoint endpoint : UpstreamEndpoint.values()) {
+            circuitBreakers.put(endpoint, new CircuitBreaker(endpoint.name(), resilience.getFailureThreshold(),
+                    resilience.getOpenDuration().toNanos(), resilience.getMaxConcurrentCalls()));
+        }
+        this.lastKnownGood = Caffeine.newBuilder().maximumSize(resilience.getFallbackMaxSize()).build();
+        this.metrics = new UpstreamMetrics(meterRegistry);
+        bindGauges(meterRegistry);
+    }
+
+    public CompletableFuture<UpstreamResult<Map<String, List<String>>>> fetchBreeds() {
+        return fetch(UpstreamEndpoint.BREEDS, baseUrl + "/breeds/list/all", DogBreedsResponse.class)
+                .thenApply(result -> result.map(DogBreedsResponse::getMessage));
+    }
+
+    public CompletableFuture<UpstreamResult<List<String>>> fetchSubBreeds(String breed) {
+        return fetch(UpstreamEndpoint.SUB_BREEDS, baseUrl + "/breed/" + breed + "/list", DogSubBreedsResponse.class)
+                .thenApply(result -> result.map(DogSubBreedsResponse::getMessage));
+    }
+
+    public CompletableFuture<UpstreamResult<List<String>>> fetchRandomImages(String breed, int count) {
+        return fetch(UpstreamEndpoint.IMAGES, baseUrl + "/breed/" + breed + "/images/random/" + count, DogImagesResponse.class)
+                .thenApply(result -> result.map(DogImagesResponse::getMessage));
+    }
+
+    public CompletableFuture<UpstreamResult<List<String>>> fetchImages(String breed) {
+        return fetch(UpstreamEndpoint.IMAGES, baseUrl + "/breed/" + breed + "/images", DogImagesResponse.class)
+                .thenApply(result -> result.map(DogImagesResponse::getMessage));
+    }
+
+    public SingleFlightStatsResponse singleFlightStats() {
+        return singleFlight.stats();
+    }
+
+    public Map<String, CircuitBreakerStatsResponse> circuitBreakerStats() {
+        Map<String, CircuitBreakerStatsResponse> stats = new LinkedHashMap<>();
+        circuitBreakers.forEach((endpoint, circuitBreaker) -> stats.put(endpoint.name(), circuitBreaker.stats()));
+        return stats;
+    }
+
+    /**
+     * Waits for a fetch started by this client and rethrows its failure unwrapped.
+     */
+    public static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private <T> CompletableFuture<T> timed(UpstreamEndpoint endpoint, Supplier<CompletableFuture<T>> call) {
+        long start = System.nanoTime();
+        return call.get().whenComplete((body, ex) -> metrics.record(endpoint, start, ex));
+    }
+
+    private void bindGauges(MeterRegistry registry) {
+        circuitBreakers.forEach((endpoint, circuitBreaker) -> {
+            // 0 closed, 1 open, 2 half open
+            Gauge.builder("dog.upstream.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                    .tag("endpoint", endpoint.name())
+                    .register(registry);
+            Gauge.builder("dog.upstream.bulkhead.available", circuitBreaker, breaker -> breaker.stats().getAvailableBulkheadPermits())
+                    .tag("endpoint", endpoint.name())
+                    .register(registry);
+            FunctionCounter.builder("dog.upstream.rejected", circuitBreaker, breaker -> breaker.stats().getRejectedCalls())
+                    .description("Calls refused by an open circuit or a full bulkhead")
+                    .tag("endpoint", endpoint.name())
+                    .register(registry);
+        });
+        Gauge.builder("dog.upstream.single.flight.in.flight", singleFlight, flights -> flights.stats().getInFlight())
+                .register(registry);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<UpstreamResult<T>> fetch(UpstreamEndpoint endpoint, String url, Class<T> type) {
+        return singleFlight.execute(url, () -> circuitBreakers.get(endpoint).execute(() -> timed(endpoint, () -> transport.get(url, type))
+                        .thenApply(body -> {
+                            if (body == null) {
+                                throw new DogApiUnavailableException("Empty response from GET " + url);
+                            }
+                            return body;
+                        })))
+                .thenApply(body -> {
+                    lastKnownGood.put(url, body);
+                    return UpstreamResult.fresh(body);
+                })
+                .exceptionallyCompose(ex -> {
+                    Object fallback = CircuitBreaker.isFailure(ex) ? lastKnownGood.getIfPresent(url) : null;
+                    return fallback != null
+                            ? CompletableFuture.completedFuture(UpstreamResult.stale((T) fallback))
+                            : CompletableFuture.failedFuture(ex);
+                });
+    }
+}
@@ -1,99 +1,238 @@
 package com.test.dog.service;
-import com.test.dog.dto.*;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.test.dog.dto.DogFilter;
+import com.test.dog.dto.DogPage;
+import com.test.dog.dto.DogPatch;
+import com.test.dog.dto.DogSummary;
+import com.test.dog.dto.UpstreamResult;
 import com.test.dog.handler.DogNotFoundException;
+import com.test.dog.handler.DogVersionConflictException;
 import com.test.dog.model.Dog;
 import com.test.dog.repo.DogRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class DogApiService {
 
-    private static final String DOG_API_URL = "https://dog.ceo/api";
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final ImageReservoir imageReservoir = new ImageReservoir();
+    private final SubBreedTransformers subBreedTransformers = SubBreedTransformers.defaults(imageReservoir);
+    // Shaped results by the cached upstream result they came from; entries go when it leaves the cache.
+    private final Cache<UpstreamResult<?>, UpstreamResult<List<String>>> shapedResults = Caffeine.newBuilder().weakKeys().build();
+
     @Autowired
-    private RestTemplate restTemplate;
+    private BreedCatalogCache breedCatalogCache;
     @Autowired
     private DogRepository dogRepository;
+    // present when dog.write-behind.enabled is set
+    @Autowired(required = false)
+    private DogWriteBehind dogWriteBehind;
 
-    public DogApiService(RestTemplate restTemplate, DogRepository dogRepository) {
-        this.restTemplate = restTemplate;
+    public DogApiService(BreedCatalogCache breedCatalogCache, DogRepository dogRepository) {
+        this.breedCatalogCache = breedCatalogCache;
         this.dogRepository = dogRepository;
     }
 
     public Map<String, List<String>> getDogBreeds() {
-        String url = DOG_API_URL + "/breeds/list/all";
-        DogBreedsResponse response = restTemplate.getForObject(url, DogBreedsResponse .class);
-        return response.getMessage();
+        return getDogBreedsResult().getBody();
+    }
+
+    public UpstreamResult<Map<String, List<String>>> getDogBreedsResult() {
+        return DogApiClient.await(getDogBreedsAsync());
+    }
+
+    public CompletableFuture<UpstreamResult<Map<String, List<String>>>> getDogBreedsAsync() {
+        return breedCatalogCache.breeds();
     }
 
     public List<String> getDogSubBreeds(String breed) {
-        String url = DOG_API_URL + "/breed/" + breed + "/list";
-        String url1 = DOG_API_URL + "/breed/" + breed + "/images/random/3";
-        String url2 = DOG_API_URL + "/breed/" + breed + "/images";
-        DogSubBreedsResponse response = restTemplate.getForObject(url, DogSubBreedsResponse.class);
-        DogImagesResponse response1 = restTemplate.getForObject(url1, DogImagesResponse.class);
-        DogImagesResponse response2 = restTemplate.getForObject(url2, DogImagesResponse.class);
-
-        List<String> resultList = new ArrayList<>();
-        List<String> result = response.getMessage();
-        List<String> result1 = response1.getMessage();
-        List<String> result2 = response2.getMessage();
-        List<String> oddNumberedData = null;
-        if(breed.equals("sheepdog")){
-            result.stream().forEach(temp -> resultList.add(breed.concat("-").concat(temp)));
-        } else if (breed.equals("terrier")) {
-            result.stream().forEach(temp -> resultList.add(breed.concat("-").concat(temp).concat(" : ").concat(String.valueOf(result1))));
-        } else if (breed.equals("shiba")) {
-            oddNumberedData = new ArrayList<>();
-
-            for (int i = 0; i < result2.size(); i++) {
-                if (i % 2 == 0) {
-                    oddNumberedData.add(result2.get(i));
-                }
-            }
-            return oddNumberedData;
-        } else {
-            result.stream().forEach(temp -> resultList.add(temp));
-        }
-        return resultList;
+        return getDogSubBreedsResult(breed).getBody();
+    }
+
+    public UpstreamResult<List<String>> getDogSubBreedsResult(String breed) {
+        return DogApiClient.await(getDogSubBreedsAsync(breed));
+    }
+
+    /**
+     * While a breed's upstream data stays cached, reusable shapes are served as the same result
+     * instance, so callers can key derived data such as serialized responses on its identity.
+     */
+    public CompletableFuture<UpstreamResult<List<String>>> getDogSubBreedsAsync(String breed) {
+        return shape(breed, subBreedTransformers.forBreed(breed));
+    }
+
+    /**
+     * Whether {@link #getDogSubBreedsAsync} hands out one result for the breed for as long as its
+     * data stays cached, rather than a new one shaped for each request.
+     */
+    public boolean isSubBreedsReusable(String breed) {
+        return subBreedTransformers.forBreed(breed).isReusable();
+    }
+
+    private <S> CompletableFuture<UpstreamResult<List<String>>> shape(String breed, SubBreedTransformer<S> transformer) {
+        return transformer.lookup(breed, breedCatalogCache).thenApply(source -> transformer.isReusable()
+                ? shapedResults.get(source, key -> source.map(body -> transformer.shape(breed, body)))
+                : source.map(body -> transformer.shape(breed, body)));
+    }
+
+    public UpstreamResult<List<String>> getRandomImagesResult(String breed, int count) {
+        return DogApiClient.await(getRandomImagesAsync(breed, count));
+    }
+
+    /**
+     * Up to count (at most 50) distinct images of the breed, drawn locally from its cached image
+     * list; only a cache miss goes upstream.
+     */
+    public CompletableFuture<UpstreamResult<List<String>>> getRandomImagesAsync(String breed, int count) {
+        return breedCatalogCache.images(breed).thenApply(images -> images.map(urls -> imageReservoir.sample(urls, count)));
     }
 
     public Dog getDogById(Long id) {
+        if (dogWriteBehind != null) {
+            return dogWriteBehind.find(id);
+        }
         return dogRepository.findById(id)
                 .orElseThrow(() -> new DogNotFoundException(id));
     }
 
+    public DogPage listDogs(DogFilter filter, Long afterId, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // one extra row tells whether there is a next page without a count query
+        List<DogSummary> items = dogRepository.findPage(filter, afterId, pageSize + 1);
+        if (items.size() <= pageSize) {
+            return new DogPage(items, null);
+        }
+        items = items.subList(0, pageSize);
+        return new DogPage(items, items.get(pageSize - 1).getId());
+    }
+
+    /**
+     * Whether writes are queued and applied in the background rather than before returning.
+     */
+    public boolean isWriteBehind() {
+        return dogWriteBehind != null;
+    }
+
     public Dog createDog(Dog dog) {
+        if (dogWriteBehind != null) {
+            return dogWriteBehind.create(dog);
+        }
+        // always a new dog: with a version attribute, save() goes by the version to tell new from
+        // existing, and an id sent along would make it try to persist a detached dog
+        dog.setId(null);
+        dog.setVersion(null);
         return dogRepository.save(dog);
     }
 
     public Dog updateDog(Long id, Dog dogDetails) {
+        return updateDog(id, dogDetails, null);
+    }
+
+    /**
+     * Replaces the dog's fields. Given the version the caller last saw (If-Match), this is a
+     * conditional update that reads the dog from the second-level cache, so a cached dog takes a
+     * single statement; if the dog has changed since, it fails with a
+     * {@link DogVersionConflictException} instead of overwriting the other change.
+     */
+    public Dog updateDog(Long id, Dog dogDetails, Long expectedVersion) {
+        if (dogWriteBehind != null) {
+            return dogWriteBehind.update(id, dogDetails, expectedVersion);
+        }
+        if (expectedVersion == null) {
+            Dog dog = dogRepository.findById(id)
+                    .orElseThrow(() -> new DogNotFoundException(id));
+
+            dog.setName(dogDetails.getName());
+            dog.setBreed(dogDetails.getBreed());
+            dog.setAge(dogDetails.getAge());
+            dog.setColor(dogDetails.getColor());
+
+            return save(dog);
+        }
+        Dog dog = new Dog(id, dogDetails.getName(), dogDetails.getBreed(), dogDetails.getAge(), dogDetails.getColor(), expectedVersion);
+        try {
+            return dogRepository.updateIfVersion(dog);
+        } catch (OptimisticLockingFailureException e) {
+            throw versionMismatch(id, expectedVersion);
+        }
+    }
+
+    /**
+     * Changes only the fields given in the patch. The read comes from the second-level cache, so
+     * the update, which carries the version read, is normally the one round trip to the database.
+     */
+    public Dog patchDog(Long id, DogPatch patch, Long expectedVersion) {
+        if (dogWriteBehind != null) {
+            return dogWriteBehind.patch(id, patch, expectedVersion);
+        }
         Dog dog = dogRepository.findById(id)
                 .orElseThrow(() -> new DogNotFoundException(id));
+        checkVersion(dog, expectedVersion);
 
-        dog.setName(dogDetails.getName());
-        dog.setBreed(dogDetails.getBreed());
-        dog.setAge(dogDetails.getAge());
+        patch.applyTo(dog);
 
-        return dogRepository.save(dog);
+        return save(dog);
     }
 
     public ResponseEntity<?> deleteDog(Long id) {
+        return deleteDog(id, null);
+    }
+
+    public ResponseEntity<?> deleteDog(Long id, Long expectedVersion) {
+        if (dogWriteBehind != null) {
+            dogWriteBehind.delete(id, expectedVersion);
+            return ResponseEntity.accepted().build();
+        }
+        if (expectedVersion != null) {
+            try {
+                dogRepository.deleteIfVersion(id, expectedVersion);
+            } catch (OptimisticLockingFailureException e) {
+                throw versionMismatch(id, expectedVersion);
+            }
+            return ResponseEntity.ok().build();
+        }
         Dog dog = dogRepository.findById(id)
                 .orElseThrow(() -> new DogNotFoundException(id));
 
-        dogRepository.delete(dog);
+        try {
+            dogRepository.delete(dog);
+        } catch (OptimisticLockingFailureException e) {
+            throw new DogVersionConflictException(id, dog.getVersion());
+        }
 
         return ResponseEntity.ok().build();
     }
-}
-
 
+    // only now is it worth a read to tell a stale version from a missing dog
+    private RuntimeException versionMismatch(Long id, Long expectedVersion) {
+        if (!dogRepository.existsById(id)) {
+            return new DogNotFoundException(id);
+        }
+        return new DogVersionConflictException(id, expectedVersion);
+    }
 
+    private static void checkVersion(Dog dog, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(dog.getVersion())) {
+            throw new DogVersionConflictException(dog.getId(), expectedVersion);
+        }
+    }
 
+    // the update or delete carries the version that was read, so a change in between is a conflict, not lost
+    private Dog save(Dog dog) {
+        Long readVersion = dog.getVersion();
+        try {
+            return dogRepository.save(dog);
+        } catch (OptimisticLockingFailureException e) {
+            throw new DogVersionConflictException(dog.getId(), readVersion);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.test.dog.service;
+
+import com.test.dog.config.DogBatchProperties;
+import com.test.dog.dto.DogBatchItemResult;
+import com.test.dog.dto.DogBatchItemResult.Status;
+import com.test.dog.dto.DogBatchResponse;
+import com.test.dog.handler.BatchTooLargeException;
+import com.test.dog.model.Dog;
+import com.test.dog.repo.DogRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk create, update and delete of dogs. Items are written in chunks, one transaction per
+ * chunk, so Hibernate can group the statements into JDBC batches and a failing chunk does
+ * not roll back the ones before it. Every item gets its own result.
+ */
+@Service
+public class DogBatchService {
+
+    private final DogRepository dogRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final DogBatchProperties properties;
+
+    public DogBatchService(DogRepository dogRepository, TransactionTemplate transactionTemplate,
+                           Validator validator, DogBatchProperties properties) {
+        this.dogRepository = dogRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.properties = properties;
+    }
+
+    public DogBatchResponse createDogs(List<Dog> dogs) {
+        checkSize(dogs.size());
+        DogBatchItemResult[] results = new DogBatchItemResult[dogs.size()];
+        List<Integer> valid = new ArrayList<>(dogs.size());
+        for (int i = 0; i < dogs.size(); i++) {
+            String error = validate(dogs.get(i));
+            if (error != null) {
+                results[i] = new DogBatchItemResult(i, null, Status.INVALID, error);
+            } else {
+                valid.add(i);
+            }
+        }
+        inChunks(valid, results, chunk -> {
+            List<Dog> toSave = new ArrayList<>(chunk.size());
+            for (int index : chunk) {
+                Dog dog = dogs.get(index);
+                dog.setId(null);
+                toSave.add(dog);
+            }
+            dogRepository.saveAll(toSave);
+            List<DogBatchItemResult> chunkResults = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                chunkResults.add(new DogBatchItemResult(chunk.get(i), toSave.get(i).getId(), Status.CREATED, null));
+            }
+            return chunkResults;
+        });
+        return DogBatchResponse.of(Arrays.asList(results));
+    }
+
+    public DogBatchResponse updateDogs(List<Dog> dogs) {
+        checkSize(dogs.size());
+        DogBatchItemResult[] results = new DogBatchItemResult[dogs.size()];
+        List<Integer> valid = new ArrayList<>(dogs.size());
+        for (int i = 0; i < dogs.size(); i++) {
+            Dog dog = dogs.get(i);
+            String error = dog.getId() == null ? "id is required" : validate(dog);
+            if (error != null) {
+                results[i] = new DogBatchItemResult(i, dog.getId(), Status.INVALID, error);
+            } else {
+                valid.add(i);
+            }
+        }
+        inChunks(valid, results, chunk -> {
+            Map<Long, Dog> existing = findAllById(chunk.stream().map(index -> dogs.get(index).getId()).toList());
+            List<DogBatchItemResult> chunkResults = new ArrayList<>(chunk.size());
+            for (int index : chunk) {
+                Dog details = dogs.get(index);
+                Dog dog = existing.get(details.getId());
+                if (dog == null) {
+                    chunkResults.add(new DogBatchItemResult(index, details.getId(), Status.NOT_FOUND, null));
+                    continue;
+                }
+                // managed entities: dirty checking issues the batched updates on commit
+                dog.setName(details.getName());
+                dog.setBreed(details.getBreed());
+                dog.setAge(details.getAge());
+                dog.setColor(details.getColor());
+                chunkResults.add(new DogBatchItemResult(index, dog.getId(), Status.UPDATED, null));
+            }
+            return chunkResults;
+        });
+        return DogBatchResponse.of(Arrays.asList(results));
+    }
+
+    public DogBatchResponse deleteDogs(List<Long> ids) {
+        checkSize(ids.size());
+        DogBatchItemResult[] results = new DogBatchItemResult[ids.size()];
+        List<Integer> valid = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            if (ids.get(i) == null) {
+                results[i] = new DogBatchItemResult(i, null, Status.INVALID, "id is required");
+            } else {
+                valid.add(i);
+            }
+        }
+        inChunks(valid, results, chunk -> {
+            Set<Long> existing = findAllById(chunk.stream().map(ids::get).toList()).keySet();
+            dogRepository.deleteAllByIdInBatch(existing);
+            List<DogBatchItemResult> chunkResults = new ArrayList<>(chunk.size());
+            for (int index : chunk) {
+                Long id = ids.get(index);
+                chunkResults.add(new DogBatchItemResult(index, id, existing.contains(id) ? Status.DELETED : Status.NOT_FOUND, null));
+            }
+            return chunkResults;
+        });
+        return DogBatchResponse.of(Arrays.asList(results));
+    }
+
+    private void inChunks(List<Integer> indexes, DogBatchItemResult[] results,
+                          Function<List<Integer>, List<DogBatchItemResult>> writer) {
+        int chunkSize = properties.getChunkSize();
+        for (int from = 0; from < indexes.size(); from += chunkSize) {
+            List<Integer> chunk = indexes.subList(from, Math.min(from + chunkSize, indexes.size()));
+            try {
+                List<DogBatchItemResult> chunkResults = transactionTemplate.execute(status -> writer.apply(chunk));
+                for (DogBatchItemResult result : chunkResults) {
+                    results[result.getIndex()] = result;
+                }
+            } catch (RuntimeException e) {
+                for (int index : chunk) {
+                    results[index] = new DogBatchItemResult(index, null, Status.FAILED, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private Map<Long, Dog> findAllById(List<Long> ids) {
+        return dogRepository.findAllById(ids).stream().collect(Collectors.toMap(Dog::getId, Function.identity()));
+    }
+
+    private String validate(Dog dog) {
+        Set<ConstraintViolation<Dog>> violations = validator.validate(dog);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private void checkSize(int size) {
+        if (size > properties.getMaxSize()) {
+            throw new BatchTooLargeException(size, properties.getMaxSize());
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.test.dog.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.test.dog.handler.UnsupportedExportFormatException;
+import com.test.dog.model.Dog;
+import com.test.dog.repo.DogRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Dumps the dogs table to a stream row by row. Rows are read through a forward-only cursor and
+ * written as they arrive, the persistence context is cleared regularly and the second-level cache
+ * is bypassed, so memory use does not grow with the table.
+ */
+@Service
+public class DogExportService {
+
+    public enum Format {
+        NDJSON(MediaType.parseMediaType("application/x-ndjson")),
+        CSV(MediaType.parseMediaType("text/csv"));
+
+        private final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public static Format of(String name) {
+            try {
+                return valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new UnsupportedExportFormatException(name);
+            }
+        }
+    }
+
+    private static final int CLEAR_INTERVAL = 1000;
+
+    private final DogRepository dogRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public DogExportService(DogRepository dogRepository, ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.dogRepository = dogRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public void export(Format format, OutputStream out) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            // keep a full dump out of the second-level cache, where it would push out the hot dogs;
+            // Hibernate 6.1 does not apply the cache store mode hint to scrolled queries, so set it on the session
+            entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+            try (Stream<Dog> dogs = dogRepository.streamAllByOrderById()) {
+                if (format == Format.CSV) {
+                    writeCsv(dogs.iterator(), out);
+                } else {
+                    writeNdjson(dogs.iterator(), out);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void writeNdjson(Iterator<Dog> dogs, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            int count = 0;
+            while (dogs.hasNext()) {
+                generator.writeObject(dogs.next());
+                generator.writeRaw('\n');
+                if (++count % CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                    generator.flush();
+                }
+            }
+        }
+    }
+
+    private void writeCsv(Iterator<Dog> dogs, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write("id,name,breed,age,color\n");
+        int count = 0;
+        while (dogs.hasNext()) {
+            Dog dog = dogs.next();
+            writer.write(String.valueOf(dog.getId()));
+            writer.write(',');
+            writeCsvField(writer, dog.getName());
+            writer.write(',');
+            writeCsvField(writer, dog.getBreed());
+            writer.write(',');
+            writer.write(String.valueOf(dog.getAge()));
+            writer.write(',');
+            writeCsvField(writer, dog.getColor());
+            writer.write('\n');
+            if (++count % CLEAR_INTERVAL == 0) {
+                entityManager.clear();
+                writer.flush();
+            }
+        }
+        writer.flush();
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,363 @@
+package com.test.dog.service;
+
+import com.test.dog.config.DogWriteBehindProperties;
+import com.test.dog.dto.DogPatch;
+import com.test.dog.handler.DogNotFoundException;
+import com.test.dog.handler.DogVersionConflictException;
+import com.test.dog.handler.WriteBehindShuttingDownException;
+import com.test.dog.handler.WriteQueueFullException;
+import com.test.dog.model.Dog;
+import com.test.dog.model.ReservableSequenceGenerator;
+import com.test.dog.repo.DogRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind for single-dog creates, updates and deletes, enabled with dog.write-behind.enabled.
+ * A write is checked, given its id (creates reserve one from the dogs sequence) and put on a
+ * bounded queue; the caller gets the resulting dog straight away, a 429 when the queue is
+ * full, or a 503 once shutdown has begun. One worker thread drains the queue into transactions of up to max-batch-size writes,
+ * so Hibernate can batch the statements, and applies them in arrival order, which keeps the
+ * writes to any one dog in order. Until a write is flushed, reads by id see it, with the version
+ * the flush will give the dog, so If-Match works against queued writes too. Each update and
+ * delete carries the version it was built on and is flushed as a conditional write, so one that
+ * finds the dog changed by another writer in the meantime is counted as a conflict and dropped
+ * rather than overwriting that change. A transaction that fails is retried one write at a time,
+ * and writes that still fail are logged and dropped.
+ * On shutdown, after the web server has stopped taking requests, the queue is drained.
+ */
+@Service
+@ConditionalOnProperty(prefix = "dog.write-behind", name = "enabled", havingValue = "true")
+public class DogWriteBehind implements SmartLifecycle, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(DogWriteBehind.class);
+
+    enum Kind { CREATE, UPDATE, DELETE }
+
+    // basedOnVersion: the version of the dog the update or delete was made against; null for creates
+    record Write(Kind kind, Dog dog, Long basedOnVersion) {
+    }
+
+    private final DogRepository dogRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final DogWriteBehindProperties properties;
+    private final SessionFactoryImplementor sessionFactory;
+    private final ReservableSequenceGenerator idGenerator;
+    private final BlockingQueue<Write> queue;
+    // latest unflushed write per dog id, for reads by id
+    private final Map<Long, Write> pending = new ConcurrentHashMap<>();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile boolean accepting;
+    private volatile boolean running;
+    private Thread worker;
+
+    public DogWriteBehind(DogRepository dogRepository, TransactionTemplate transactionTemplate, Validator validator,
+                          DogWriteBehindProperties properties, EntityManagerFactory entityManagerFactory) {
+        this.dogRepository = dogRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.properties = properties;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.idGenerator = (ReservableSequenceGenerator) sessionFactory.getRuntimeMetamodels().getMappingMetamodel()
+                .getEntityDescriptor(Dog.class).getIdentifierGenerator();
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+    }
+
+    public Dog create(Dog dog) {
+        validate(dog);
+        Dog created = copy(dog);
+        // the version the insert will seed, so the caller has an ETag before the flush
+        created.setVersion(0L);
+        try (SessionImplementor session = (SessionImplementor) sessionFactory.openSession()) {
+            created.setId((Long) idGenerator.reserve(session, created));
+        }
+        try {
+            enqueue(new Write(Kind.CREATE, created, null), null);
+        } catch (RuntimeException e) {
+            idGenerator.release(created.getId());
+            throw e;
+        }
+        return copy(created);
+    }
+
+    public Dog update(Long id, Dog dogDetails, Long expectedVersion) {
+        return update(id, expectedVersion, dog -> {
+            dog.setName(dogDetails.getName());
+            dog.setBreed(dogDetails.getBreed());
+            dog.setAge(dogDetails.getAge());
+            dog.setColor(dogDetails.getColor());
+        });
+    }
+
+    public Dog patch(Long id, DogPatch patch, Long expectedVersion) {
+        return update(id, expectedVersion, patch::applyTo);
+    }
+
+    public void delete(Long id, Long expectedVersion) {
+        while (true) {
+            Write basedOn = pending.get(id);
+            Dog current = find(id, basedOn);
+            checkVersion(current, expectedVersion);
+            if (enqueue(new Write(Kind.DELETE, current, current.getVersion()), basedOn)) {
+                return;
+            }
+            if (expectedVersion != null) {
+                throw new DogVersionConflictException(id, expectedVersion);
+            }
+        }
+    }
+
+    /**
+     * The dog as the unflushed writes leave it, or as stored.
+     */
+    public Dog find(Long id) {
+        return find(id, pending.get(id));
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    private Dog update(Long id, Long expectedVersion, Consumer<Dog> change) {
+        while (true) {
+            Write basedOn = pending.get(id);
+            Dog current = find(id, basedOn);
+            checkVersion(current, expectedVersion);
+            Dog updated = copy(current);
+            change.accept(updated);
+            // Hibernate bumps the version only when a field changed, and so does the copy handed back
+            if (!updated.equals(current) && current.getVersion() != null) {
+                updated.setVersion(current.getVersion() + 1);
+            }
+            validate(updated);
+            if (enqueue(new Write(Kind.UPDATE, updated, current.getVersion()), basedOn)) {
+                return copy(updated);
+            }
+            if (expectedVersion != null) {
+                throw new DogVersionConflictException(id, expectedVersion);
+            }
+            // another write to this dog was queued meanwhile; apply the change on top of it
+        }
+    }
+
+    private Dog find(Long id, Write write) {
+        if (write == null) {
+            return dogRepository.findById(id).orElseThrow(() -> new DogNotFoundException(id));
+        }
+        if (write.kind() == Kind.DELETE) {
+            throw new DogNotFoundException(id);
+        }
+        return copy(write.dog());
+    }
+
+    private static void checkVersion(Dog dog, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(dog.getVersion())) {
+            throw new DogVersionConflictException(dog.getId(), expectedVersion);
+        }
+    }
+
+    /**
+     * Queues the write unless another write to the same dog was queued after {@code basedOn},
+     * the pending write the new one was built from; returns whether it was queued.
+     */
+    private boolean enqueue(Write write, Write basedOn) {
+        boolean[] queued = {false};
+        // under the map's lock for this id, so the queue and the pending view agree on the order
+        pending.compute(write.dog().getId(), (id, previous) -> {
+            if (previous != null && previous != basedOn) {
+                return previous;
+            }
+            if (!accepting) {
+                throw new WriteBehindShuttingDownException();
+            }
+            if (!queue.offer(write)) {
+                rejected.increment();
+                throw new WriteQueueFullException(properties.getQueueCapacity());
+            }
+            queued[0] = true;
+            return write;
+        });
+        return queued[0];
+    }
+
+    private void drain() {
+        List<Write> batch = new ArrayList<>(properties.getMaxBatchSize());
+        long windowNanos = properties.getFlushWindow().toNanos();
+        while (running || !queue.isEmpty()) {
+            try {
+                Write first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < properties.getMaxBatchSize()) {
+                    if (queue.drainTo(batch, properties.getMaxBatchSize() - batch.size()) > 0) {
+                        continue;
+                    }
+                    Write next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+                flush(batch);
+                break;
+            }
+            flush(batch);
+            batch.clear();
+        }
+        int lost = queue.size();
+        if (lost > 0) {
+            log.error("Shut down with {} dog writes still queued; they were not written", lost);
+        }
+    }
+
+    void flush(List<Write> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(this::apply));
+        } catch (RuntimeException batchFailure) {
+            log.warn("Writing {} queued dog writes failed, retrying them one by one", batch.size(), batchFailure);
+            for (Write write : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> apply(write));
+                } catch (OptimisticLockingFailureException e) {
+                    conflicts.increment();
+                    log.warn("Dropped queued {} of dog {}: it has changed since version {}",
+                            write.kind(), write.dog().getId(), write.basedOnVersion());
+                } catch (RuntimeException e) {
+                    dropped.increment();
+                    log.error("Dropped queued {} of dog {}", write.kind(), write.dog().getId(), e);
+                }
+            }
+        } finally {
+            for (Write write : batch) {
+                pending.remove(write.dog().getId(), write);
+                if (write.kind() == Kind.CREATE) {
+                    idGenerator.release(write.dog().getId());
+                }
+            }
+        }
+    }
+
+    private void apply(Write write) {
+        Dog dog = write.dog();
+        switch (write.kind()) {
+            case CREATE -> {
+                // without a version the dog counts as new despite its id; the generator keeps the reserved id
+                Dog inserted = copy(dog);
+                inserted.setVersion(null);
+                entityManager.persist(inserted);
+            }
+            case UPDATE -> {
+                Dog based = copy(dog);
+                based.setVersion(write.basedOnVersion());
+                dogRepository.updateIfVersion(based);
+            }
+            case DELETE -> dogRepository.deleteIfVersion(dog.getId(), write.basedOnVersion());
+        }
+    }
+
+    private void validate(Dog dog) {
+        Set<ConstraintViolation<Dog>> violations = validator.validate(dog);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+    }
+
+    private static Dog copy(Dog dog) {
+        return new Dog(dog.getId(), dog.getName(), dog.getBreed(), dog.getAge(), dog.getColor(), dog.getVersion());
+    }
+
+    @Override
+    public void start() {
+        accepting = true;
+        running = true;
+        worker = new Thread(this::drain, "dog-write-behind");
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        accepting = false;
+        running = false;
+        try {
+            worker.join(properties.getShutdownTimeout().toMillis());
+            if (worker.isAlive()) {
+                worker.interrupt();
+                worker.join(1000);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // below the web server's phases (DEFAULT_PHASE - 2048 to stop, DEFAULT_PHASE - 1024 for graceful
+    // shutdown), so it stops after the server has stopped taking requests
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("dog.write.behind.queued", queue, BlockingQueue::size)
+                .description("Dog writes waiting to be flushed")
+                .register(registry);
+        FunctionCounter.builder("dog.write.behind.rejected", rejected, LongAdder::sum)
+                .description("Dog writes turned away because the queue was full")
+                .register(registry);
+        FunctionCounter.builder("dog.write.behind.dropped", dropped, LongAdder::sum)
+                .description("Queued dog writes that failed to flush")
+                .register(registry);
+        FunctionCounter.builder("dog.write.behind.conflicts", conflicts, LongAdder::sum)
+                .description("Queued dog updates and deletes dropped because the dog had changed since they were made")
+                .register(registry);
+    }
+}
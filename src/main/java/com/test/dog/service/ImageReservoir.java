@@ -0,0 +1,52 @@
+package com.test.dog.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Random images drawn locally from a breed's cached image list instead of asking dog.ceo for
+ * them. The cached lists are compact and random access, so a draw reads only the images it
+ * picks, and it uses the calling thread's generator so concurrent draws never contend.
+ */
+class ImageReservoir {
+
+    // dog.ceo caps random image requests at 50
+    static final int MAX_SAMPLE = 50;
+
+    /**
+     * Up to n distinct images, in the order they appear in the list; all of them when n covers the list.
+     */
+    List<String> sample(List<String> images, int n) {
+        List<String> source = images instanceof RandomAccess ? images : List.copyOf(images);
+        int count = Math.max(0, Math.min(Math.min(n, MAX_SAMPLE), source.size()));
+        if (count == source.size()) {
+            return List.copyOf(source);
+        }
+        // Floyd's algorithm: count distinct indexes in count draws, without touching the list
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int[] picked = new int[count];
+        int size = 0;
+        for (int bound = source.size() - count; bound < source.size(); bound++) {
+            int candidate = random.nextInt(bound + 1);
+            picked[size] = contains(picked, size, candidate) ? bound : candidate;
+            size++;
+        }
+        Arrays.sort(picked);
+        String[] sample = new String[count];
+        for (int i = 0; i < count; i++) {
+            sample[i] = source.get(picked[i]);
+        }
+        return List.of(sample);
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,69 @@
+package com.test.dog.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.test.dog.config.DogApiProperties;
+import okhttp3.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking transport: calls are enqueued on the OkHttp dispatcher and complete from its
+ * callbacks, so no caller thread waits on the socket. Failures are mapped to the same
+ * exception types {@link org.springframework.web.client.RestTemplate} raises.
+ */
+public class OkHttpUpstreamTransport implements UpstreamTransport {
+
+    private final OkHttpClient okHttpClient;
+    private final ObjectMapper objectMapper;
+    private final long timeoutMillis;
+
+    public OkHttpUpstreamTransport(OkHttpClient okHttpClient, ObjectMapper objectMapper, DogApiProperties properties) {
+        this.okHttpClient = okHttpClient;
+        this.objectMapper = objectMapper;
+        this.timeoutMillis = properties.getFetch().getTimeout().toMillis();
+    }
+
+    @Override
+    public <T> CompletableFuture<T> get(String url, Class<T> type) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Call call = okHttpClient.newCall(new Request.Builder().url(url).get().build());
+        call.timeout().timeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                result.completeExceptionally(new ResourceAccessException("I/O error on GET request for \"" + url + "\": " + e.getMessage(), e));
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (ResponseBody body = response.body()) {
+                    byte[] bytes = body != null ? body.bytes() : new byte[0];
+                    HttpStatusCode status = HttpStatusCode.valueOf(response.code());
+                    if (status.is4xxClientError()) {
+                        result.completeExceptionally(HttpClientErrorException.create(status, response.message(), HttpHeaders.EMPTY, bytes, StandardCharsets.UTF_8));
+                    } else if (status.is5xxServerError()) {
+                        result.completeExceptionally(HttpServerErrorException.create(status, response.message(), HttpHeaders.EMPTY, bytes, StandardCharsets.UTF_8));
+                    } else if (!status.is2xxSuccessful()) {
+                        // a redirect OkHttp did not follow, or another status with no body to bind
+                        result.completeExceptionally(new RestClientResponseException("Unexpected " + response.code() + " for GET " + url,
+                                status, response.message(), HttpHeaders.EMPTY, bytes, StandardCharsets.UTF_8));
+                    } else {
+                        result.complete(objectMapper.readValue(bytes, type));
+                    }
+                } catch (IOException | RuntimeException e) {
+                    result.completeExceptionally(new ResourceAccessException("Error reading response of GET " + url + ": " + e.getMessage()));
+                }
+            }
+        });
+        return result;
+    }
+}
@@ -0,0 +1,70 @@
+package com.test.dog.service;
+
+import com.test.dog.dto.SingleFlightStatsResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key: the first caller starts the call and everyone
+ * arriving while it is still running gets the same result instead of starting their own.
+ */
+public class SingleFlight {
+
+    private final ConcurrentMap<String, Flight> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder flights = new LongAdder();
+    private final LongAdder callers = new LongAdder();
+    private final AtomicLong maxCallers = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> execute(String key, Supplier<CompletableFuture<T>> call) {
+        Flight created = new Flight();
+        Flight flight = inFlight.putIfAbsent(key, created);
+        if (flight != null) {
+            flight.callers.incrementAndGet();
+            // copy() so one caller cancelling or completing its future cannot affect the others
+            return (CompletableFuture<T>) flight.result.copy();
+        }
+
+        CompletableFuture<T> result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((value, ex) -> {
+            inFlight.remove(key, created);
+            record(created.callers.get());
+            if (ex != null) {
+                created.result.completeExceptionally(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+            } else {
+                created.result.complete(value);
+            }
+        });
+        return (CompletableFuture<T>) created.result.copy();
+    }
+
+    public SingleFlightStatsResponse stats() {
+        long completed = flights.sum();
+        long total = callers.sum();
+        return new SingleFlightStatsResponse(completed, total, total - completed,
+                completed == 0 ? 0 : (double) total / completed, maxCallers.get(), inFlight.size());
+    }
+
+    private void record(int flightCallers) {
+        flights.increment();
+        callers.add(flightCallers);
+        maxCallers.accumulateAndGet(flightCallers, Math::max);
+    }
+
+    private static class Flight {
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+        final AtomicInteger callers = new AtomicInteger(1);
+    }
+}
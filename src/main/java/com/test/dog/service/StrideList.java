@@ -0,0 +1,36 @@
+package com.test.dog.service;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Read-only view of every step-th element of a list, starting with the first.
+ */
+final class StrideList<E> extends AbstractList<E> implements RandomAccess {
+
+    private final List<E> source;
+    private final int step;
+
+    StrideList(List<E> source, int step) {
+        if (step < 1) {
+            throw new IllegalArgumentException("step must be positive: " + step);
+        }
+        this.source = source instanceof RandomAccess ? source : new ArrayList<>(source);
+        this.step = step;
+    }
+
+    @Override
+    public E get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        return source.get(index * step);
+    }
+
+    @Override
+    public int size() {
+        return (source.size() + step - 1) / step;
+    }
+}
@@ -0,0 +1,27 @@
+package com.test.dog.service;
+
+import com.test.dog.dto.UpstreamResult;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Shapes the upstream data for one breed into the /dog-breeds/{breed} response. A transformer
+ * looks up only the data it needs, so lookups it does not use are never started.
+ *
+ * @param <S> the upstream data the response is built from
+ */
+public interface SubBreedTransformer<S> {
+
+    CompletableFuture<UpstreamResult<S>> lookup(String breed, BreedCatalogCache breedCatalogCache);
+
+    List<String> shape(String breed, S source);
+
+    /**
+     * Whether the response depends on nothing but the looked-up data, so one shaped result can
+     * be served for as long as that data stays cached.
+     */
+    default boolean isReusable() {
+        return true;
+    }
+}
@@ -0,0 +1,136 @@
+package com.test.dog.service;
+
+import com.test.dog.dto.UpstreamResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The {@link SubBreedTransformer} for each breed; breeds without one of their own get their
+ * sub-breed list as is. Outputs are presized, and fragments shared by every entry are built once.
+ */
+public class SubBreedTransformers {
+
+    private static final int TERRIER_RANDOM_IMAGES = 3;
+
+    private final Map<String, SubBreedTransformer<?>> byBreed = new HashMap<>();
+    private final SubBreedTransformer<?> fallback;
+
+    public SubBreedTransformers(SubBreedTransformer<?> fallback) {
+        this.fallback = fallback;
+    }
+
+    static SubBreedTransformers defaults(ImageReservoir imageReservoir) {
+        return new SubBreedTransformers(new SubBreeds())
+                .register("sheepdog", new PrefixedSubBreeds())
+                .register("terrier", new SubBreedsWithRandomImages(imageReservoir))
+                .register("shiba", new EveryOtherImage());
+    }
+
+    public SubBreedTransformers register(String breed, SubBreedTransformer<?> transformer) {
+        byBreed.put(breed, transformer);
+        return this;
+    }
+
+    public SubBreedTransformer<?> forBreed(String breed) {
+        return byBreed.getOrDefault(breed, fallback);
+    }
+
+    /**
+     * The sub-breed list, read-only so callers cannot change the cached copy.
+     */
+    static class SubBreeds implements SubBreedTransformer<List<String>> {
+
+        @Override
+        public CompletableFuture<UpstreamResult<List<String>>> lookup(String breed, BreedCatalogCache breedCatalogCache) {
+            return breedCatalogCache.subBreeds(breed);
+        }
+
+        @Override
+        public List<String> shape(String breed, List<String> subBreeds) {
+            return Collections.unmodifiableList(subBreeds);
+        }
+    }
+
+    /**
+     * "{breed}-{subBreed}" for each sub-breed.
+     */
+    static class PrefixedSubBreeds implements SubBreedTransformer<List<String>> {
+
+        @Override
+        public CompletableFuture<UpstreamResult<List<String>>> lookup(String breed, BreedCatalogCache breedCatalogCache) {
+            return breedCatalogCache.subBreeds(breed);
+        }
+
+        @Override
+        public List<String> shape(String breed, List<String> subBreeds) {
+            String prefix = breed + "-";
+            List<String> shaped = new ArrayList<>(subBreeds.size());
+            for (String subBreed : subBreeds) {
+                shaped.add(prefix + subBreed);
+            }
+            return shaped;
+        }
+    }
+
+    /**
+     * "{breed}-{subBreed} : [three random images]" for each sub-breed, the same images on every line.
+     * The images are drawn from the cached image list, but anew on every request, so the result
+     * is never reused.
+     */
+    static class SubBreedsWithRandomImages implements SubBreedTransformer<SubBreedsWithRandomImages.Source> {
+
+        record Source(List<String> subBreeds, List<String> images) {
+        }
+
+        private final ImageReservoir imageReservoir;
+
+        SubBreedsWithRandomImages(ImageReservoir imageReservoir) {
+            this.imageReservoir = imageReservoir;
+        }
+
+        @Override
+        public CompletableFuture<UpstreamResult<Source>> lookup(String breed, BreedCatalogCache breedCatalogCache) {
+            return breedCatalogCache.subBreeds(breed).thenCombine(breedCatalogCache.images(breed),
+                    (subBreeds, images) -> new UpstreamResult<>(
+                            new Source(subBreeds.getBody(), imageReservoir.sample(images.getBody(), TERRIER_RANDOM_IMAGES)),
+                            subBreeds.isStale() || images.isStale()));
+        }
+
+        @Override
+        public List<String> shape(String breed, Source source) {
+            String prefix = breed + "-";
+            String suffix = " : " + source.images();
+            List<String> shaped = new ArrayList<>(source.subBreeds().size());
+            for (String subBreed : source.subBreeds()) {
+                shaped.add(prefix + subBreed + suffix);
+            }
+            return shaped;
+        }
+
+        @Override
+        public boolean isReusable() {
+            return false;
+        }
+    }
+
+    /**
+     * The 1st, 3rd, 5th... image, as a view over the cached image list rather than a copy.
+     */
+    static class EveryOtherImage implements SubBreedTransformer<List<String>> {
+
+        @Override
+        public CompletableFuture<UpstreamResult<List<String>>> lookup(String breed, BreedCatalogCache breedCatalogCache) {
+            return breedCatalogCache.images(breed);
+        }
+
+        @Override
+        public List<String> shape(String breed, List<String> images) {
+            return new StrideList<>(images, 2);
+        }
+    }
+}
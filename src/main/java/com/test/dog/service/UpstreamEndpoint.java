@@ -0,0 +1,10 @@
+package com.test.dog.service;
+
+/**
+ * Kinds of dog.ceo endpoint, each guarded by its own circuit breaker.
+ */
+public enum UpstreamEndpoint {
+    BREEDS,
+    SUB_BREEDS,
+    IMAGES
+}
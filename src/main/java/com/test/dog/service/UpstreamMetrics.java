@@ -0,0 +1,99 @@
+package com.test.dog.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Latency of each call to dog.ceo as the dog.upstream.requests timer, tagged by endpoint kind
+ * and status: the HTTP status code, or TIMEOUT / IO_ERROR when no response arrived. Timers are
+ * built up front and looked up by index, so recording a call does not allocate.
+ */
+class UpstreamMetrics {
+
+    static final String TIMER_NAME = "dog.upstream.requests";
+
+    private static final String TIMEOUT = "TIMEOUT";
+    private static final String IO_ERROR = "IO_ERROR";
+    private static final int MAX_STATUS = 600;
+    // registered up front so they show up at zero before the first call
+    private static final int[] COMMON_STATUSES = {200, 404, 429, 500, 502, 503, 504};
+
+    private final MeterRegistry registry;
+    private final Map<UpstreamEndpoint, Timers> timers = new EnumMap<>(UpstreamEndpoint.class);
+
+    UpstreamMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (UpstreamEndpoint endpoint : UpstreamEndpoint.values()) {
+            Timers endpointTimers = new Timers(timer(endpoint, TIMEOUT), timer(endpoint, IO_ERROR));
+            for (int status : COMMON_STATUSES) {
+                endpointTimers.byStatus[status] = timer(endpoint, String.valueOf(status));
+            }
+            timers.put(endpoint, endpointTimers);
+        }
+    }
+
+    void record(UpstreamEndpoint endpoint, long startNanos, Throwable failure) {
+        timerFor(endpoint, failure).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timerFor(UpstreamEndpoint endpoint, Throwable failure) {
+        Timers endpointTimers = timers.get(endpoint);
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        if (cause == null) {
+            return status(endpoint, endpointTimers, 200);
+        }
+        if (cause instanceof RestClientResponseException responseException) {
+            return status(endpoint, endpointTimers, responseException.getStatusCode().value());
+        }
+        for (Throwable t = cause; t != null; t = t.getCause()) {
+            if (t instanceof TimeoutException || t instanceof InterruptedIOException) {
+                return endpointTimers.timeout;
+            }
+        }
+        return endpointTimers.ioError;
+    }
+
+    private Timer status(UpstreamEndpoint endpoint, Timers endpointTimers, int status) {
+        if (status < 0 || status >= MAX_STATUS) {
+            return endpointTimers.ioError;
+        }
+        Timer timer = endpointTimers.byStatus[status];
+        if (timer == null) {
+            // a racing thread may build the same timer; the registry hands both the same meter
+            timer = timer(endpoint, String.valueOf(status));
+            endpointTimers.byStatus[status] = timer;
+        }
+        return timer;
+    }
+
+    private Timer timer(UpstreamEndpoint endpoint, String status) {
+        return Timer.builder(TIMER_NAME)
+                .description("Calls to the dog.ceo API")
+                .tag("endpoint", endpoint.name())
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(registry);
+    }
+
+    private static class Timers {
+        final Timer[] byStatus = new Timer[MAX_STATUS];
+        final Timer timeout;
+        final Timer ioError;
+
+        Timers(Timer timeout, Timer ioError) {
+            this.timeout = timeout;
+            this.ioError = ioError;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.test.dog.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Performs a single GET against dog.ceo and binds the JSON body to the given type.
+ * Transports that own a thread pool export its gauges through {@link #bindTo}.
+ */
+public interface UpstreamTransport extends AutoCloseable, MeterBinder {
+
+    <T> CompletableFuture<T> get(String url, Class<T> type);
+
+    @Override
+    default void bindTo(MeterRegistry registry) {
+    }
+
+    @Override
+    default void close() {
+    }
+}
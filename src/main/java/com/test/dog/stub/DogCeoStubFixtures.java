@@ -0,0 +1,67 @@
+package com.test.dog.stub;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generated breed catalogue for the stub server. The breeds the service treats specially
+ * always exist with the shape they have on dog.ceo; the rest are numbered filler breeds,
+ * a third of them with sub-breeds.
+ */
+class DogCeoStubFixtures {
+
+    private static final List<String> KNOWN_BREEDS = List.of("sheepdog", "terrier", "shiba", "hound", "labrador");
+    private static final List<String> BREEDS_WITH_SUB_BREEDS = List.of("sheepdog", "terrier", "hound");
+
+    private final Map<String, List<String>> breeds = new LinkedHashMap<>();
+    private final Map<String, List<String>> images = new LinkedHashMap<>();
+
+    DogCeoStubFixtures(DogCeoStubProperties properties) {
+        List<String> names = new ArrayList<>(KNOWN_BREEDS);
+        for (int i = names.size(); i < properties.getBreedCount(); i++) {
+            names.add("breed" + i);
+        }
+        for (int i = 0; i < names.size(); i++) {
+            String breed = names.get(i);
+            boolean hasSubBreeds = BREEDS_WITH_SUB_BREEDS.contains(breed) || (i >= KNOWN_BREEDS.size() && i % 3 == 0);
+            breeds.put(breed, hasSubBreeds ? subBreeds(properties.getSubBreedsPerBreed()) : List.of());
+            images.put(breed, images(breed, properties.getImagesPerBreed()));
+        }
+    }
+
+    private static List<String> subBreeds(int count) {
+        List<String> subBreeds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            subBreeds.add("sub" + i);
+        }
+        return subBreeds;
+    }
+
+    private static List<String> images(String breed, int count) {
+        List<String> urls = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            urls.add("https://images.dog.ceo/breeds/" + breed + "/n02" + (100000 + i) + "_" + i + ".jpg");
+        }
+        return urls;
+    }
+
+    Map<String, List<String>> breeds() {
+        return breeds;
+    }
+
+    List<String> subBreeds(String breed) {
+        return breeds.get(breed);
+    }
+
+    List<String> images(String breed) {
+        return images.get(breed);
+    }
+
+    List<String> allImages() {
+        List<String> all = new ArrayList<>();
+        images.values().forEach(all::addAll);
+        return all;
+    }
+}
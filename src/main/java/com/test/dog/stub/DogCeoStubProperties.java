@@ -0,0 +1,28 @@
+package com.test.dog.stub;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "dog.stub")
+public class DogCeoStubProperties {
+
+    // Start the stub inside the application; set dog.api.base-url=http://localhost:{port}/api to use it.
+    private boolean enabled = false;
+    // 0 picks a free port.
+    private int port = 8089;
+    private int threads = 16;
+    // Every response waits latency plus an exponentially distributed extra delay with mean jitter.
+    private Duration latency = Duration.ZERO;
+    private Duration jitter = Duration.ZERO;
+    // Share of requests answered with a 500, between 0 and 1.
+    private double errorRate = 0;
+    // Fixture sizes.
+    private int breedCount = 100;
+    private int subBreedsPerBreed = 6;
+    private int imagesPerBreed = 300;
+    // Seed for the injected errors and delays and the random picks; each handler thread splits its own generator from it.
+    private long seed = 42;
+}
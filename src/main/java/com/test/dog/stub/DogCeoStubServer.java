@@ -0,0 +1,239 @@
+package com.test.dog.stub;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stand-in for the dog.ceo API, serving generated fixtures over HTTP with configurable
+ * latency, jitter, error rate and payload size. It answers the same paths under /api:
+ * <ul>
+ *     <li>/breeds/list/all</li>
+ *     <li>/breed/{breed}/list</li>
+ *     <li>/breed/{breed}/images</li>
+ *     <li>/breed/{breed}/images/random/{n} and /breeds/image/random/{n}</li>
+ * </ul>
+ * Delayed responses are parked on a scheduler rather than a sleeping thread, so a slow stub
+ * does not run out of threads under load. Each handler thread draws its delays, errors and
+ * random picks from its own generator, split from the configured seed, so requests do not
+ * contend on one. Runs inside the application when dog.stub.enabled is set, or on its own
+ * through {@link #main}.
+ */
+public class DogCeoStubServer implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(DogCeoStubServer.class);
+    private static final String API_PREFIX = "/api/";
+    // dog.ceo caps random image requests at 50
+    private static final int MAX_RANDOM_IMAGES = 50;
+
+    private final DogCeoStubProperties properties;
+    private final DogCeoStubFixtures fixtures;
+    private final List<String> allImages;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SplittableRandom seedRandom;
+    private final ThreadLocal<SplittableRandom> random = ThreadLocal.withInitial(this::splitRandom);
+    // Responses that never change, serialized once.
+    private final Map<String, byte[]> fixedResponses = new LinkedHashMap<>();
+
+    private HttpServer server;
+    private ExecutorService workers;
+    private ScheduledExecutorService scheduler;
+
+    public DogCeoStubServer(DogCeoStubProperties properties) {
+        this.properties = properties;
+        this.fixtures = new DogCeoStubFixtures(properties);
+        this.allImages = fixtures.allImages();
+        this.seedRandom = new SplittableRandom(properties.getSeed());
+        fixedResponses.put("breeds/list/all", success(fixtures.breeds()));
+        fixtures.breeds().forEach((breed, subBreeds) -> {
+            fixedResponses.put("breed/" + breed + "/list", success(subBreeds));
+            fixedResponses.put("breed/" + breed + "/images", success(fixtures.images(breed)));
+        });
+    }
+
+    public static void main(String[] args) throws IOException {
+        // e.g. --dog.stub.port=8089 --dog.stub.latency=40ms --dog.stub.jitter=20ms --dog.stub.error-rate=0.01
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+        DogCeoStubProperties properties = Binder.get(environment).bind("dog.stub", DogCeoStubProperties.class)
+                .orElseGet(DogCeoStubProperties::new);
+        DogCeoStubServer stub = new DogCeoStubServer(properties);
+        stub.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(stub::close));
+        log.info("dog.ceo stub listening on {}", stub.getBaseUrl());
+    }
+
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            return;
+        }
+        workers = Executors.newFixedThreadPool(properties.getThreads());
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), properties.getPort()), 0);
+        server.setExecutor(workers);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        scheduler.shutdownNow();
+        workers.shutdownNow();
+        server = null;
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * The value for dog.api.base-url that points the application at this stub.
+     */
+    public String getBaseUrl() {
+        return "http://localhost:" + getPort() + "/api";
+    }
+
+    private void handle(HttpExchange exchange) {
+        int status;
+        byte[] body;
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                status = 405;
+                body = error(status, "Method not allowed");
+            } else if (random.get().nextDouble() < properties.getErrorRate()) {
+                status = 500;
+                body = error(status, "Injected failure");
+            } else {
+                body = route(exchange.getRequestURI().getPath());
+                status = body != null ? 200 : 404;
+                if (body == null) {
+                    body = error(status, "Breed not found (master breed does not exist)");
+                }
+            }
+        } catch (RuntimeException e) {
+            // always answer, so a stub bug shows up as a 500 rather than a client read timeout
+            log.warn("Stub failed to handle {}", exchange.getRequestURI(), e);
+            status = 500;
+            body = error(status, "Stub failure");
+        }
+
+        long delayNanos = delayNanos();
+        int responseStatus = status;
+        byte[] responseBody = body;
+        if (delayNanos > 0) {
+            scheduler.schedule(() -> send(exchange, responseStatus, responseBody), delayNanos, TimeUnit.NANOSECONDS);
+        } else {
+            send(exchange, status, body);
+        }
+    }
+
+    private byte[] route(String path) {
+        if (!path.startsWith(API_PREFIX)) {
+            return null;
+        }
+        String route = path.substring(API_PREFIX.length());
+        byte[] fixed = fixedResponses.get(route);
+        if (fixed != null) {
+            return fixed;
+        }
+        String[] segments = route.split("/");
+        if (segments.length == 4 && route.startsWith("breeds/image/random/")) {
+            return randomImages(allImages, segments[3]);
+        }
+        if (segments.length == 5 && segments[0].equals("breed") && segments[2].equals("images")
+                && segments[3].equals("random") && fixtures.images(segments[1]) != null) {
+            return randomImages(fixtures.images(segments[1]), segments[4]);
+        }
+        return null;
+    }
+
+    private byte[] randomImages(List<String> images, String count) {
+        int n;
+        try {
+            n = Math.max(1, Math.min(Integer.parseInt(count), MAX_RANDOM_IMAGES));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (images.isEmpty()) {
+            return success(List.of());
+        }
+        List<String> sample = random.get().ints(0, images.size()).distinct().limit(Math.min(n, images.size()))
+                .mapToObj(images::get).toList();
+        return success(sample);
+    }
+
+    private long delayNanos() {
+        long delay = properties.getLatency().toNanos();
+        long jitter = properties.getJitter().toNanos();
+        if (jitter > 0) {
+            // exponential, so a small share of responses lands far out in the tail
+            delay += (long) (-jitter * Math.log(1 - random.get().nextDouble()));
+        }
+        return delay;
+    }
+
+    private synchronized SplittableRandom splitRandom() {
+        return seedRandom.split();
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) {
+        try (exchange; OutputStream out = exchange.getResponseBody()) {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            out.write(body);
+        } catch (IOException e) {
+            // the client went away; nothing to do for a stub
+        }
+    }
+
+    private byte[] success(Object message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("message", message);
+        body.put("status", "success");
+        return json(body);
+    }
+
+    private byte[] error(int code, String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", "error");
+        body.put("message", message);
+        body.put("code", code);
+        return json(body);
+    }
+
+    private byte[] json(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.test.dog.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Wraps the DataSource so only a few virtual threads can hold a JDBC connection at a time.
+ * The H2 driver works inside synchronized blocks, and a virtual thread that blocks there stays
+ * pinned to its carrier; enough of them at once and no carrier is left to run anything else.
+ * Waiting for a permit here parks the virtual thread instead, so at most that many carriers
+ * can ever be pinned. Platform threads pass straight through.
+ */
+public class JdbcPinningGuard implements BeanPostProcessor {
+
+    private final int permits;
+
+    public JdbcPinningGuard(int permits) {
+        this.permits = permits > 0 ? permits : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof GuardedDataSource)) {
+            return new GuardedDataSource(dataSource, new Semaphore(permits));
+        }
+        return bean;
+    }
+
+    static class GuardedDataSource extends DelegatingDataSource {
+
+        private final Semaphore permits;
+
+        GuardedDataSource(DataSource target, Semaphore permits) {
+            super(target);
+            this.permits = permits;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return guarded(super::getConnection);
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return guarded(() -> super.getConnection(username, password));
+        }
+
+        int availablePermits() {
+            return permits.availablePermits();
+        }
+
+        private Connection guarded(ConnectionSource source) throws SQLException {
+            if (!Thread.currentThread().isVirtual()) {
+                return source.get();
+            }
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted waiting for a JDBC permit", e);
+            }
+            try {
+                return releasingOnClose(source.get());
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        private Connection releasingOnClose(Connection connection) {
+            AtomicBoolean released = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                            try {
+                                return method.invoke(connection, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            } finally {
+                                permits.release();
+                            }
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+
+        @FunctionalInterface
+        private interface ConnectionSource {
+            Connection get() throws SQLException;
+        }
+    }
+}
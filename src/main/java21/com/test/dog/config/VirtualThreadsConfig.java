@@ -0,0 +1,55 @@
+package com.test.dog.config;
+
+import org.apache.coyote.AbstractProtocol;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Handles each request on its own virtual thread, enabled with dog.concurrency.virtual-threads=true
+ * in the Java 21 build. Blocking on dog.ceo or the database then parks a cheap virtual thread
+ * instead of holding one of server.tomcat.threads.max platform threads, so the connection and
+ * concurrency limits in {@link DogConcurrencyProperties} take over as the caps. Upstream calls
+ * run on virtual threads as well, through {@link AppConfig#VIRTUAL_THREAD_UPSTREAM_EXECUTOR}; see AppConfig.
+ * Run with -Djdk.tracePinnedThreads=short to report any remaining pinning.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "dog.concurrency", name = "virtual-threads", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandler(DogConcurrencyProperties properties) {
+        return protocolHandler -> {
+            protocolHandler.setExecutor(Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-vt-", 0).factory()));
+            if (protocolHandler instanceof AbstractProtocol<?> protocol) {
+                protocol.setMaxConnections(properties.getMaxConnections());
+            }
+        };
+    }
+
+    // a virtual thread per call; the per-endpoint bulkhead in DogApiClient is the cap, not a pool size
+    @Bean(AppConfig.VIRTUAL_THREAD_UPSTREAM_EXECUTOR)
+    public ExecutorService virtualThreadUpstreamExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("dog-api-vt-", 0).factory());
+    }
+
+    @Bean
+    public ConcurrencyLimitFilter concurrencyLimitFilter(DogConcurrencyProperties properties) {
+        return new ConcurrencyLimitFilter(properties);
+    }
+
+    // static and bound by hand: post-processors are created before configuration properties beans
+    @Bean
+    public static JdbcPinningGuard jdbcPinningGuard(Environment environment) {
+        DogConcurrencyProperties properties = Binder.get(environment).bind("dog.concurrency", DogConcurrencyProperties.class)
+                .orElseGet(DogConcurrencyProperties::new);
+        return new JdbcPinningGuard(properties.getJdbcPermits());
+    }
+}
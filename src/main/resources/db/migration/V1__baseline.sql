@@ -0,0 +1,45 @@
+-- Schema as of the switch from ddl-auto to Flyway; Hibernate validates against it on startup.
+
+create sequence dogs_seq start with 1 increment by 50;
+create sequence mirror_breed_images_seq start with 1 increment by 50;
+create sequence mirror_sub_breeds_seq start with 1 increment by 50;
+
+create table dogs (
+    id bigint not null,
+    name varchar(255),
+    breed varchar(255),
+    age integer not null,
+    color varchar(255),
+    version bigint default 0 not null,
+    primary key (id)
+);
+-- keyset listing: each filter column followed by id, the seek key
+create index idx_dogs_breed_id on dogs (breed, id);
+create index idx_dogs_color_id on dogs (color, id);
+create index idx_dogs_age_id on dogs (age, id);
+
+create table mirror_breeds (
+    name varchar(255) not null,
+    images_mirrored boolean not null,
+    primary key (name)
+);
+
+create table mirror_sub_breeds (
+    id bigint not null,
+    breed varchar(255),
+    name varchar(255),
+    position integer not null,
+    primary key (id),
+    constraint uk_mirror_sub_breeds_breed_name unique (breed, name)
+);
+create index idx_mirror_sub_breeds_breed_position on mirror_sub_breeds (breed, position);
+
+create table mirror_breed_images (
+    id bigint not null,
+    breed varchar(255),
+    url varchar(255),
+    position integer not null,
+    primary key (id),
+    constraint uk_mirror_breed_images_breed_url unique (breed, url)
+);
+create index idx_mirror_breed_images_breed_position on mirror_breed_images (breed, position);
@@ -0,0 +1,64 @@
+package com.test.dog.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.test.dog.dto.UpstreamResult;
+import com.test.dog.service.DogApiService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(value = DogBreedAsyncController.class, properties = "dog.api.async.enabled=true")
+class DogBreedAsyncControllerTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DogApiService dogApiService;
+
+    @Test
+    void getDogBreeds_completesAsynchronously() throws Exception {
+        Map<String, List<String>> breeds = Collections.singletonMap("shiba", Collections.singletonList("inu"));
+        CompletableFuture<UpstreamResult<Map<String, List<String>>>> pending = new CompletableFuture<>();
+        given(dogApiService.getDogBreedsAsync()).willReturn(pending);
+
+        MvcResult result = mockMvc.perform(get("/dogs/dog-breeds"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        pending.complete(UpstreamResult.fresh(breeds));
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().json(OBJECT_MAPPER.writeValueAsString(breeds)));
+    }
+
+    @Test
+    void getDogSubBreeds_completesAsynchronously() throws Exception {
+        List<String> subBreeds = List.of("sheepdog-english", "sheepdog-shetland");
+        given(dogApiService.getDogSubBreedsAsync("sheepdog")).willReturn(CompletableFuture.completedFuture(UpstreamResult.stale(subBreeds)));
+
+        MvcResult result = mockMvc.perform(get("/dogs/dog-breeds/{breed}", "sheepdog"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(UpstreamResponses.STALE_HEADER, "true"))
+                .andExpect(content().json(OBJECT_MAPPER.writeValueAsString(subBreeds)));
+    }
+}
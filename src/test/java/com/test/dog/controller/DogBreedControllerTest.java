@@ -0,0 +1,176 @@
+package com.test.dog.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.test.dog.dto.UpstreamResult;
+import com.test.dog.handler.DogApiUnavailableException;
+import com.test.dog.service.DogApiService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(DogBreedController.class)
+class DogBreedControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DogApiService dogApiService;
+
+    private static final String BREED = "shiba";
+    private static final String SUB_BREED = "inu";
+    private static final Map<String, List<String>> DOG_BREEDS = Collections.singletonMap(BREED, Collections.singletonList(SUB_BREED));
+    private static final List<String> DOG_SUB_BREEDS = Collections.singletonList(SUB_BREED);
+    private static final List<String> IMAGES = IntStream.range(0, 100)
+            .mapToObj(i -> "https://images.dog.ceo/breeds/shiba/shiba-" + i + ".jpg").toList();
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        given(dogApiService.isSubBreedsReusable(anyString())).willReturn(true);
+    }
+
+    @Test
+    void getDogBreeds_shouldReturnMapOfDogBreeds() throws Exception {
+        given(dogApiService.getDogBreedsResult()).willReturn(UpstreamResult.fresh(DOG_BREEDS));
+
+        mockMvc.perform(get("/dogs/dog-breeds"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(OBJECT_MAPPER.writeValueAsString(DOG_BREEDS)));
+    }
+
+    @Test
+    void getDogSubBreeds_shouldReturnListOfDogSubBreeds() throws Exception {
+        given(dogApiService.getDogSubBreedsResult(BREED)).willReturn(UpstreamResult.fresh(DOG_SUB_BREEDS));
+
+        mockMvc.perform(get("/dogs/dog-breeds/{breed}", BREED))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(UpstreamResponses.STALE_HEADER))
+                .andExpect(content().json(OBJECT_MAPPER.writeValueAsString(DOG_SUB_BREEDS)));
+    }
+
+    @Test
+    void getDogSubBreeds_shouldMarkStaleFallback() throws Exception {
+        given(dogApiService.getDogSubBreedsResult(BREED)).willReturn(UpstreamResult.stale(DOG_SUB_BREEDS));
+
+        mockMvc.perform(get("/dogs/dog-breeds/{breed}", BREED))
+                .andExpect(status().isOk())
+                .andExpect(header().string(UpstreamResponses.STALE_HEADER, "true"))
+                .andExpect(content().json(OBJECT_MAPPER.writeValueAsString(DOG_SUB_BREEDS)));
+    }
+
+    @Test
+    void getDogBreeds_shouldReturnNotModifiedForMatchingEtag() throws Exception {
+        given(dogApiService.getDogBreedsResult()).willReturn(UpstreamResult.fresh(DOG_BREEDS));
+
+        String etag = mockMvc.perform(get("/dogs/dog-breeds"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/dogs/dog-breeds").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().bytes(new byte[0]));
+        mockMvc.perform(get("/dogs/dog-breeds").header(HttpHeaders.IF_NONE_MATCH, "\"other\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getDogSubBreeds_shouldServeGzipWhenAcceptedAndLargeEnough() throws Exception {
+        given(dogApiService.getDogSubBreedsResult(BREED)).willReturn(UpstreamResult.fresh(IMAGES));
+
+        byte[] body = mockMvc.perform(get("/dogs/dog-breeds/{breed}", BREED).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, "Accept, Accept-Encoding"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals(OBJECT_MAPPER.writeValueAsString(IMAGES), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void getDogSubBreeds_shouldNotGzipBelowTheThreshold() throws Exception {
+        given(dogApiService.getDogSubBreedsResult(BREED)).willReturn(UpstreamResult.fresh(DOG_SUB_BREEDS));
+
+        mockMvc.perform(get("/dogs/dog-breeds/{breed}", BREED).header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().json(OBJECT_MAPPER.writeValueAsString(DOG_SUB_BREEDS)));
+    }
+
+    @Test
+    void getDogSubBreeds_shouldServeSmileOrCborWhenAccepted() throws Exception {
+        given(dogApiService.getDogSubBreedsResult(BREED)).willReturn(UpstreamResult.fresh(IMAGES));
+        ObjectMapper smile = new ObjectMapper(new SmileFactory());
+        ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+
+        MockHttpServletResponse smileResponse = mockMvc.perform(get("/dogs/dog-breeds/{breed}", BREED)
+                        .header(HttpHeaders.ACCEPT, "application/x-jackson-smile, application/json;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse();
+        byte[] cborBody = mockMvc.perform(get("/dogs/dog-breeds/{breed}", BREED).header(HttpHeaders.ACCEPT, "application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals(IMAGES, List.of(smile.readValue(smileResponse.getContentAsByteArray(), String[].class)));
+        assertEquals(IMAGES, List.of(cbor.readValue(cborBody, String[].class)));
+        assertTrue(smileResponse.getContentAsByteArray().length < OBJECT_MAPPER.writeValueAsBytes(IMAGES).length);
+        // each format is its own representation, with its own tag
+        mockMvc.perform(get("/dogs/dog-breeds/{breed}", BREED).header(HttpHeaders.IF_NONE_MATCH, smileResponse.getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+        // JSON stays the answer to wildcards and to types we do not serve
+        mockMvc.perform(get("/dogs/dog-breeds/{breed}", BREED).header(HttpHeaders.ACCEPT, "text/html, */*;q=0.1"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void getDogSubBreeds_shouldWritePerRequestShapesWithoutTagOrCache() throws Exception {
+        given(dogApiService.isSubBreedsReusable("terrier")).willReturn(false);
+        given(dogApiService.getDogSubBreedsResult("terrier")).willReturn(UpstreamResult.fresh(IMAGES));
+
+        mockMvc.perform(get("/dogs/dog-breeds/{breed}", "terrier").header(HttpHeaders.ACCEPT, "application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-store"))
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+        mockMvc.perform(get("/dogs/dog-breeds/{breed}", "terrier"))
+                .andExpect(content().json(OBJECT_MAPPER.writeValueAsString(IMAGES)));
+    }
+
+    @Test
+    void getDogBreeds_shouldReturnServiceUnavailableWhenUpstreamIsDown() throws Exception {
+        given(dogApiService.getDogBreedsResult()).willThrow(new DogApiUnavailableException("Circuit breaker BREEDS is open"));
+
+        mockMvc.perform(get("/dogs/dog-breeds"))
+                .andExpect(status().isServiceUnavailable());
+    }
+}
@@ -2,7 +2,12 @@ package com.test.dog.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.test.dog.model.Dog;
+import com.test.dog.dto.DogBatchItemResult;
+import com.test.dog.dto.DogBatchResponse;
+import com.test.dog.dto.DogPatch;
 import com.test.dog.service.DogApiService;
+import com.test.dog.service.DogBatchService;
+import com.test.dog.service.DogExportService;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,9 +20,8 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.*;
@@ -37,11 +41,11 @@ public class DogControllerTest {
     @MockBean
     private DogApiService dogApiService;
 
-    private static final String BREED = "shiba";
-    private static final String SUB_BREED = "inu";
-    private static final Map<String, List<String>> DOG_BREEDS = Collections.singletonMap(BREED, Collections.singletonList(SUB_BREED));
-    private static final List<String> DOG_SUB_BREEDS = Collections.singletonList(SUB_BREED);
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    @MockBean
+    private DogBatchService dogBatchService;
+
+    @MockBean
+    private DogExportService dogExportService;
 
     private static String asJsonString(final Object obj) {
         try {
@@ -51,24 +55,6 @@ public class DogControllerTest {
         }
     }
 
-    @Test
-    public void getDogBreeds_shouldReturnMapOfDogBreeds() throws Exception {
-        given(dogApiService.getDogBreeds()).willReturn(DOG_BREEDS);
-
-        mockMvc.perform(get("/dogs/dog-breeds"))
-                .andExpect(status().isOk())
-                .andExpect(content().json(OBJECT_MAPPER.writeValueAsString(DOG_BREEDS)));
-    }
-
-    @Test
-    public void getDogSubBreeds_shouldReturnListOfDogSubBreeds() throws Exception {
-        given(dogApiService.getDogSubBreeds(BREED)).willReturn(DOG_SUB_BREEDS);
-
-        mockMvc.perform(get("/dogs/dog-breeds/{breed}", BREED))
-                .andExpect(status().isOk())
-                .andExpect(content().json(OBJECT_MAPPER.writeValueAsString(DOG_SUB_BREEDS)));
-    }
-
     @Test
     public void testFindById() throws Exception {
         Long id = 1L;
@@ -109,7 +95,7 @@ public class DogControllerTest {
         dog.setId(id);
         dog.setName("Buddy");
 
-        given(dogApiService.updateDog(id, dog)).willReturn(dog);
+        given(dogApiService.updateDog(id, dog, null)).willReturn(dog);
 
         RequestBuilder requestBuilder = MockMvcRequestBuilders.put("/dogs/{id}", id)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -127,8 +113,86 @@ public class DogControllerTest {
         Long id = 1L;
         mockMvc.perform(delete("/dogs/{id}", id))
                 .andExpect(status().isOk());
-        verify(dogApiService, times(1)).deleteDog(id);
+        verify(dogApiService, times(1)).deleteDog(id, null);
+    }
+
+    @Test
+    public void testVersionIsTheETagAndIfMatchMakesWritesConditional() throws Exception {
+        Long id = 1L;
+        Dog dog = new Dog(id, "Buddy", "Golden Retriever", 5, "black", 3L);
+        Dog updated = new Dog(id, "Max", "Golden Retriever", 5, "black", 4L);
+        given(dogApiService.getDogById(id)).willReturn(dog);
+        given(dogApiService.updateDog(id, updated, 3L)).willReturn(updated);
+
+        mockMvc.perform(get("/dogs/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(jsonPath("$.version").value(3));
+        mockMvc.perform(MockMvcRequestBuilders.put("/dogs/{id}", id)
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(updated)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+        // a weak tag cannot satisfy If-Match
+        mockMvc.perform(delete("/dogs/{id}", id).header("If-Match", "W/\"3\""))
+                .andExpect(status().isPreconditionFailed());
+        verify(dogApiService, never()).deleteDog(anyLong(), any());
     }
-}
 
+    @Test
+    public void testPatch() throws Exception {
+        Long id = 1L;
+        Dog patched = new Dog(id, "Buddy", "Golden Retriever", 6, "black", 4L);
+        given(dogApiService.patchDog(id, new DogPatch(null, null, 6, null), 3L)).willReturn(patched);
 
+        mockMvc.perform(MockMvcRequestBuilders.patch("/dogs/{id}", id)
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"age\":6}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.age").value(6));
+    }
+
+    @Test
+    public void testSaveAll() throws Exception {
+        Dog dog = new Dog(null, "Buddy", "Golden Retriever", 5, "black");
+        Dog invalid = new Dog(null, "", "Golden Retriever", 5, "black");
+        List<Dog> dogs = Arrays.asList(dog, invalid);
+        given(dogBatchService.createDogs(dogs)).willReturn(DogBatchResponse.of(Arrays.asList(
+                new DogBatchItemResult(0, 1L, DogBatchItemResult.Status.CREATED, null),
+                new DogBatchItemResult(1, null, DogBatchItemResult.Status.INVALID, "name: Field cannot be blank"))));
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders.post("/dogs/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(dogs));
+
+        mockMvc.perform(requestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.items[1].status").value("INVALID"));
+    }
+
+    @Test
+    public void testDeleteAll() throws Exception {
+        List<Long> ids = Arrays.asList(1L, 2L);
+        given(dogBatchService.deleteDogs(ids)).willReturn(DogBatchResponse.of(Arrays.asList(
+                new DogBatchItemResult(0, 1L, DogBatchItemResult.Status.DELETED, null),
+                new DogBatchItemResult(1, 2L, DogBatchItemResult.Status.NOT_FOUND, null))));
+
+        mockMvc.perform(delete("/dogs/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new ObjectMapper().writeValueAsString(ids)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[1].status").value("NOT_FOUND"));
+    }
+
+    @Test
+    public void testExportRejectsUnknownFormat() throws Exception {
+        mockMvc.perform(get("/dogs/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+}
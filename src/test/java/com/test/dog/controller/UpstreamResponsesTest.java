@@ -0,0 +1,28 @@
+package com.test.dog.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstreamResponsesTest {
+
+    @Test
+    void acceptsGzipWhenListedOrCoveredByAWildcard() {
+        assertTrue(UpstreamResponses.acceptsGzip("gzip"));
+        assertTrue(UpstreamResponses.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(UpstreamResponses.acceptsGzip("br, *"));
+        assertFalse(UpstreamResponses.acceptsGzip(null));
+        assertFalse(UpstreamResponses.acceptsGzip("br, deflate"));
+    }
+
+    @Test
+    void honorsQZeroAndLetsAnExplicitGzipEntryOverrideTheWildcard() {
+        assertFalse(UpstreamResponses.acceptsGzip("gzip;q=0"));
+        assertFalse(UpstreamResponses.acceptsGzip("gzip; q=0.000"));
+        assertFalse(UpstreamResponses.acceptsGzip("*;q=0"));
+        assertFalse(UpstreamResponses.acceptsGzip("*, gzip;q=0"));
+        assertTrue(UpstreamResponses.acceptsGzip("*;q=0, gzip"));
+        assertTrue(UpstreamResponses.acceptsGzip("gzip;level=1;q=0.2"));
+        assertFalse(UpstreamResponses.acceptsGzip("gzip;q=zero"));
+    }
+}
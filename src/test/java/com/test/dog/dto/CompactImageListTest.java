@@ -0,0 +1,72 @@
+package com.test.dog.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactImageListTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final List<String> urls = List.of(
+            "https://images.dog.ceo/breeds/terrier-yorkshire/n02094433_1.jpg",
+            "https://images.dog.ceo/breeds/terrier-irish/n02093991_2.jpg",
+            "https://images.dog.ceo/breeds/terrier-yorkshire/n02094433_3.jpg");
+
+    @Test
+    void behavesLikeTheListItWasBuiltFrom() {
+        CompactImageList compact = CompactImageList.copyOf(urls);
+
+        assertEquals(urls, compact);
+        assertEquals(urls.hashCode(), compact.hashCode());
+        assertSame(compact, CompactImageList.copyOf(compact));
+        assertEquals(List.of(), CompactImageList.copyOf(List.of()));
+        assertEquals(List.of("same", "same"), CompactImageList.copyOf(List.of("same", "same")));
+        assertThrows(UnsupportedOperationException.class, () -> compact.add("x"));
+    }
+
+    @Test
+    void keepsMultiByteCharactersWhole() {
+        List<String> names = List.of("https://example.org/ü1.jpg", "https://example.org/ü2.jpg", "https://example.org/é.jpg");
+
+        assertEquals(names, CompactImageList.copyOf(names));
+    }
+
+    @Test
+    void roundTripsThroughJson() throws Exception {
+        String json = objectMapper.writeValueAsString(new DogImagesResponse(urls));
+
+        DogImagesResponse read = objectMapper.readValue(json, DogImagesResponse.class);
+
+        assertInstanceOf(CompactImageList.class, read.getMessage());
+        assertEquals(urls, read.getMessage());
+        assertEquals(objectMapper.writeValueAsString(urls), new String(objectMapper.writeValueAsBytes(read.getMessage())));
+        assertEquals(objectMapper.writeValueAsString(urls), objectMapper.writeValueAsString(read.getMessage()));
+    }
+
+    @Test
+    void escapesWhatJsonNeedsEscaped() throws Exception {
+        List<String> odd = List.of("https://x/\"quoted\".jpg", "https://x/back\\slash.jpg");
+
+        byte[] json = objectMapper.writeValueAsBytes(CompactImageList.copyOf(odd));
+
+        assertEquals(odd, List.of(objectMapper.readValue(json, String[].class)));
+    }
+
+    @Test
+    void writesTheSameListInSmileAndCbor() throws Exception {
+        CompactImageList compact = CompactImageList.copyOf(List.of("https://example.org/ü1.jpg", "https://example.org/é.jpg"));
+
+        for (ObjectMapper binary : List.of(new ObjectMapper(new SmileFactory()), new ObjectMapper(new CBORFactory()))) {
+            byte[] encoded = binary.writeValueAsBytes(compact);
+
+            assertArrayEquals(binary.writeValueAsBytes(List.copyOf(compact)), encoded);
+            assertEquals(compact, List.of(binary.readValue(encoded, String[].class)));
+        }
+    }
+}
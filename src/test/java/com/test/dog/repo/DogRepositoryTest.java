@@ -0,0 +1,46 @@
+package com.test.dog.repo;
+
+import com.test.dog.dto.DogFilter;
+import com.test.dog.dto.DogSummary;
+import com.test.dog.model.Dog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class DogRepositoryTest {
+
+    @Autowired
+    private DogRepository dogRepository;
+
+    @BeforeEach
+    void setUp() {
+        dogRepository.save(new Dog(null, "Rex", "hound", 2, "brown"));
+        dogRepository.save(new Dog(null, "Max", "terrier", 5, "black"));
+        dogRepository.save(new Dog(null, "Ace", "hound", 7, "black"));
+        dogRepository.save(new Dog(null, "Bo", "hound", 9, "brown"));
+    }
+
+    @Test
+    void findPageSeeksPastTheLastId() {
+        List<DogSummary> first = dogRepository.findPage(new DogFilter(), null, 2);
+        List<DogSummary> second = dogRepository.findPage(new DogFilter(), first.get(1).getId(), 2);
+
+        assertEquals(List.of("Rex", "Max"), first.stream().map(DogSummary::getName).toList());
+        assertEquals(List.of("Ace", "Bo"), second.stream().map(DogSummary::getName).toList());
+    }
+
+    @Test
+    void findPageAppliesFilters() {
+        List<DogSummary> page = dogRepository.findPage(new DogFilter("hound", null, 3, 8), null, 10);
+
+        assertEquals(1, page.size());
+        assertEquals("Ace", page.get(0).getName());
+        assertEquals("black", page.get(0).getColor());
+    }
+}
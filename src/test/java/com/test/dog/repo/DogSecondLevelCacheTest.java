@@ -0,0 +1,151 @@
+package com.test.dog.repo;
+
+import com.test.dog.dto.DogFilter;
+import com.test.dog.model.Dog;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DogSecondLevelCacheTest {
+
+    @Autowired
+    private DogRepository dogRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dogRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void findByIdIsServedFromSecondLevelCache() {
+        Dog saved = dogRepository.save(new Dog(null, "Rex", "hound", 2, "brown"));
+
+        dogRepository.findById(saved.getId());
+        long statementsAfterFirstRead = statistics.getPrepareStatementCount();
+        dogRepository.findById(saved.getId());
+
+        assertTrue(statistics.getSecondLevelCacheHitCount() >= 1);
+        assertEquals(statementsAfterFirstRead, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void updateRefreshesCachedEntity() {
+        Dog saved = dogRepository.save(new Dog(null, "Rex", "hound", 2, "brown"));
+        dogRepository.findById(saved.getId());
+
+        saved.setColor("black");
+        dogRepository.save(saved);
+
+        assertEquals("black", dogRepository.findById(saved.getId()).orElseThrow().getColor());
+    }
+
+    @Test
+    void deleteEvictsCachedEntity() {
+        Dog saved = dogRepository.save(new Dog(null, "Rex", "hound", 2, "brown"));
+        dogRepository.findById(saved.getId());
+
+        dogRepository.deleteById(saved.getId());
+
+        assertTrue(dogRepository.findById(saved.getId()).isEmpty());
+    }
+
+    @Test
+    void repeatedPageQueryHitsQueryCacheUntilTableChanges() {
+        dogRepository.save(new Dog(null, "Rex", "hound", 2, "brown"));
+        DogFilter filter = new DogFilter("hound", null, null, null);
+
+        dogRepository.findPage(filter, null, 10);
+        assertEquals(1, dogRepository.findPage(filter, null, 10).size());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        dogRepository.save(new Dog(null, "Bo", "hound", 9, "brown"));
+        assertEquals(2, dogRepository.findPage(filter, null, 10).size());
+    }
+
+    @Test
+    void updateIfVersionIsOneStatementAndKeepsTheCacheCurrent() {
+        Dog saved = dogRepository.save(new Dog(null, "Rex", "hound", 2, "brown"));
+        dogRepository.findById(saved.getId());
+
+        long statementsBefore = statistics.getPrepareStatementCount();
+        Dog updated = dogRepository.updateIfVersion(new Dog(saved.getId(), "Max", "hound", 3, "black", saved.getVersion()));
+
+        assertEquals(1, statistics.getPrepareStatementCount() - statementsBefore);
+        assertEquals(saved.getVersion() + 1, updated.getVersion());
+        long hitsBefore = statistics.getSecondLevelCacheHitCount();
+        Dog stored = dogRepository.findById(saved.getId()).orElseThrow();
+        assertEquals("black", stored.getColor());
+        assertEquals(updated.getVersion(), stored.getVersion());
+        assertEquals(hitsBefore + 1, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void conditionalWritesLeaveOtherCachedDogsCached() {
+        Dog written = dogRepository.save(new Dog(null, "Rex", "hound", 2, "brown"));
+        Dog other = dogRepository.save(new Dog(null, "Bo", "hound", 9, "brown"));
+        dogRepository.findById(other.getId());
+
+        Dog updated = dogRepository.updateIfVersion(new Dog(written.getId(), "Max", "hound", 3, "black", written.getVersion()));
+        assertOtherIsCacheHit(other.getId());
+
+        dogRepository.deleteIfVersion(written.getId(), updated.getVersion());
+        assertOtherIsCacheHit(other.getId());
+    }
+
+    private void assertOtherIsCacheHit(Long id) {
+        long statementsBefore = statistics.getPrepareStatementCount();
+        long hitsBefore = statistics.getSecondLevelCacheHitCount();
+        assertEquals("Bo", dogRepository.findById(id).orElseThrow().getName());
+        assertEquals(hitsBefore + 1, statistics.getSecondLevelCacheHitCount());
+        assertEquals(statementsBefore, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void deleteIfVersionIsOneStatementAndEvictsTheCachedDog() {
+        Dog saved = dogRepository.save(new Dog(null, "Rex", "hound", 2, "brown"));
+        dogRepository.findById(saved.getId());
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> dogRepository.deleteIfVersion(saved.getId(), saved.getVersion() + 1));
+        long statementsBefore = statistics.getPrepareStatementCount();
+        dogRepository.deleteIfVersion(saved.getId(), saved.getVersion());
+
+        assertEquals(1, statistics.getPrepareStatementCount() - statementsBefore);
+        assertTrue(dogRepository.findById(saved.getId()).isEmpty());
+    }
+
+    @Test
+    void updateIfVersionRejectsAStaleVersion() {
+        Dog saved = dogRepository.save(new Dog(null, "Rex", "hound", 2, "brown"));
+        dogRepository.updateIfVersion(new Dog(saved.getId(), "Max", "hound", 3, "black", saved.getVersion()));
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> dogRepository.updateIfVersion(new Dog(saved.getId(), "Ace", "hound", 4, "white", saved.getVersion())));
+        assertEquals("Max", dogRepository.findById(saved.getId()).orElseThrow().getName());
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> dogRepository.updateIfVersion(new Dog(saved.getId() + 1000, "Ace", "hound", 4, "white", 0L)));
+    }
+}
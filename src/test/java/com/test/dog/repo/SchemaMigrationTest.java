@@ -0,0 +1,37 @@
+package com.test.dog.repo;
+
+import com.test.dog.model.Dog;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The prod profile's Flyway schema, checked by Hibernate's ddl-auto=validate against the entities,
+ * on an in-memory database so the test leaves nothing behind.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:migrated;DB_CLOSE_DELAY=-1")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("prod")
+class SchemaMigrationTest {
+
+    @Autowired
+    private DogRepository dogRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migrationsBuildTheSchemaTheEntitiesExpect() {
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from \"flyway_schema_history\" where \"version\" = '1' and \"success\"", Integer.class));
+
+        Dog saved = dogRepository.saveAndFlush(new Dog(null, "Rex", "hound", 2, "brown"));
+
+        assertEquals(0L, saved.getVersion());
+        assertEquals("Rex", dogRepository.findById(saved.getId()).orElseThrow().getName());
+    }
+}
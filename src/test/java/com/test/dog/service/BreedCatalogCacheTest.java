@@ -0,0 +1,107 @@
+package com.test.dog.service;
+
+import com.test.dog.config.DogApiProperties;
+import com.test.dog.config.DogMirrorProperties;
+import com.test.dog.dto.UpstreamResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BreedCatalogCacheTest {
+
+    private final DogApiClient dogApiClient = mock(DogApiClient.class);
+    private final BreedMirror breedMirror = mock(BreedMirror.class);
+    private final BreedCatalogCache breedCatalogCache = new BreedCatalogCache(dogApiClient, new DogApiProperties(), breedMirror, mirror(true));
+
+    private static DogMirrorProperties mirror(boolean enabled) {
+        DogMirrorProperties properties = new DogMirrorProperties();
+        properties.setEnabled(enabled);
+        return properties;
+    }
+
+    @Test
+    void servesMirroredDataWithoutCallingUpstream() {
+        when(breedMirror.subBreeds("hound")).thenReturn(Optional.of(List.of("afghan")));
+
+        assertEquals(UpstreamResult.fresh(List.of("afghan")), breedCatalogCache.subBreeds("hound").join());
+        verifyNoInteractions(dogApiClient);
+    }
+
+    @Test
+    void goesUpstreamForDataTheMirrorDoesNotHold() {
+        when(breedMirror.images("shiba")).thenReturn(Optional.empty());
+        when(dogApiClient.fetchImages("shiba")).thenReturn(CompletableFuture.completedFuture(UpstreamResult.fresh(List.of("a.jpg"))));
+
+        assertEquals(List.of("a.jpg"), breedCatalogCache.images("shiba").join().getBody());
+    }
+
+    @Test
+    void goesUpstreamWithoutReadingTheMirrorWhenItIsDisabled() {
+        BreedCatalogCache breedCatalogCache = new BreedCatalogCache(dogApiClient, new DogApiProperties(), breedMirror, mirror(false));
+        when(breedMirror.subBreeds("hound")).thenReturn(Optional.of(List.of("afghan")));
+        when(dogApiClient.fetchSubBreeds("hound"))
+                .thenReturn(CompletableFuture.completedFuture(UpstreamResult.fresh(List.of("afghan", "basset"))));
+
+        assertEquals(List.of("afghan", "basset"), breedCatalogCache.subBreeds("hound").join().getBody());
+        verifyNoInteractions(breedMirror);
+    }
+
+    @Test
+    void warmedEntriesAreServedWithoutLoading() {
+        breedCatalogCache.warmCatalog(Map.of("pug", List.of()));
+
+        assertEquals(Map.of("pug", List.of()), breedCatalogCache.breeds().join().getBody());
+        assertEquals(List.of(), breedCatalogCache.subBreeds("pug").join().getBody());
+        verifyNoInteractions(breedMirror, dogApiClient);
+    }
+
+    @Test
+    void catalogListenersSeeLoadedWarmedAndRefreshedCatalogs() {
+        // without a mirror the loads complete on this thread
+        BreedCatalogCache breedCatalogCache = new BreedCatalogCache(dogApiClient, new DogApiProperties());
+        when(dogApiClient.fetchBreeds())
+                .thenReturn(CompletableFuture.completedFuture(UpstreamResult.fresh(Map.of("hound", List.of()))))
+                .thenReturn(CompletableFuture.completedFuture(UpstreamResult.fresh(Map.of("hound", List.of("afghan")))));
+        List<Map<String, List<String>>> seen = new CopyOnWriteArrayList<>();
+        breedCatalogCache.onCatalogChange(seen::add);
+
+        breedCatalogCache.breeds().join();
+        breedCatalogCache.warmCatalog(Map.of("pug", List.of()));
+        breedCatalogCache.refreshCatalog(List.of("hound"));
+
+        assertEquals(List.of(Map.of("hound", List.of()), Map.of("pug", List.of()), Map.of("hound", List.of("afghan"))), seen);
+    }
+
+    @Test
+    void aFailingListenerDoesNotFailTheCatalogLoad() {
+        BreedCatalogCache breedCatalogCache = new BreedCatalogCache(dogApiClient, new DogApiProperties());
+        when(dogApiClient.fetchBreeds()).thenReturn(CompletableFuture.completedFuture(UpstreamResult.fresh(Map.of("hound", List.of()))));
+        List<Map<String, List<String>>> seen = new CopyOnWriteArrayList<>();
+        breedCatalogCache.onCatalogChange(catalog -> {
+            throw new IllegalStateException("index rebuild failed");
+        });
+        breedCatalogCache.onCatalogChange(seen::add);
+
+        assertEquals(Map.of("hound", List.of()), breedCatalogCache.breeds().join().getBody());
+        assertEquals(List.of(Map.of("hound", List.of())), seen);
+    }
+
+    @Test
+    void breedSearchIndexFollowsTheCatalog() {
+        breedCatalogCache.warmCatalog(Map.of("hound", List.of("afghan")));
+        BreedSearchService breedSearchService = new BreedSearchService(breedCatalogCache);
+        assertEquals("hound-afghan", breedSearchService.search("afghan", 1).get(0).getName());
+
+        breedCatalogCache.warmCatalog(Map.of("pug", List.of()));
+
+        assertEquals("pug", breedSearchService.search("pug", 1).get(0).getName());
+        assertTrue(breedSearchService.search("afghan", 1).isEmpty());
+    }
+}
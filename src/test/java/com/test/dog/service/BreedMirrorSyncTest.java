@@ -0,0 +1,77 @@
+package com.test.dog.service;
+
+import com.test.dog.config.DogMirrorProperties;
+import com.test.dog.dto.MirrorSyncStatsResponse;
+import com.test.dog.dto.UpstreamResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class BreedMirrorSyncTest {
+
+    private final DogApiClient dogApiClient = mock(DogApiClient.class);
+    private final BreedMirror breedMirror = mock(BreedMirror.class);
+    private final BreedCatalogCache breedCatalogCache = mock(BreedCatalogCache.class);
+    private BreedMirrorSync breedMirrorSync;
+
+    @BeforeEach
+    void setUp() {
+        DogMirrorProperties properties = new DogMirrorProperties();
+        properties.setEnabled(true);
+        breedMirrorSync = new BreedMirrorSync(dogApiClient, breedMirror, breedCatalogCache, properties);
+    }
+
+    @Test
+    void failedCatalogFetchIsRecordedAndLeavesTheMirrorAlone() {
+        when(dogApiClient.fetchBreeds()).thenReturn(CompletableFuture.failedFuture(new ResourceAccessException("dog.ceo unreachable")));
+
+        breedMirrorSync.sync();
+
+        MirrorSyncStatsResponse stats = breedMirrorSync.stats();
+        assertNotNull(stats.getLastStartedAt());
+        assertNull(stats.getLastCompletedAt());
+        assertNotNull(stats.getLastFailedAt());
+        assertTrue(stats.getLastFailure().contains("dog.ceo unreachable"));
+        verify(breedMirror, never()).syncCatalog(any());
+    }
+
+    @Test
+    void staleCatalogIsNotMirrored() {
+        when(dogApiClient.fetchBreeds()).thenReturn(CompletableFuture.completedFuture(UpstreamResult.stale(Map.of("hound", List.of()))));
+
+        breedMirrorSync.sync();
+
+        assertNotNull(breedMirrorSync.stats().getLastFailedAt());
+        verify(breedMirror, never()).syncCatalog(any());
+    }
+
+    @Test
+    void completedRunKeepsTheLastFailure() {
+        when(dogApiClient.fetchBreeds())
+                .thenReturn(CompletableFuture.failedFuture(new ResourceAccessException("down")))
+                .thenReturn(CompletableFuture.completedFuture(UpstreamResult.fresh(Map.of("hound", List.of("afghan")))));
+        when(dogApiClient.fetchImages("hound")).thenReturn(CompletableFuture.completedFuture(UpstreamResult.fresh(List.of("a.jpg"))));
+        when(breedMirror.syncCatalog(any())).thenReturn(Set.of("hound"));
+        when(breedMirror.syncImages("hound", List.of("a.jpg"))).thenReturn(true);
+
+        breedMirrorSync.sync();
+        breedMirrorSync.sync();
+
+        MirrorSyncStatsResponse stats = breedMirrorSync.stats();
+        assertNotNull(stats.getLastCompletedAt());
+        assertNotNull(stats.getLastFailedAt());
+        assertEquals(1, stats.getBreedsChanged());
+        assertEquals(1, stats.getImageListsChanged());
+        verify(breedCatalogCache).refreshCatalog(Set.of("hound"));
+        verify(breedCatalogCache).refreshImages("hound");
+    }
+}
@@ -0,0 +1,65 @@
+package com.test.dog.service;
+
+import com.test.dog.model.SubBreed;
+import com.test.dog.repo.BreedImageRepository;
+import com.test.dog.repo.SubBreedRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(BreedMirror.class)
+class BreedMirrorTest {
+
+    @Autowired
+    private BreedMirror breedMirror;
+    @Autowired
+    private SubBreedRepository subBreedRepository;
+    @Autowired
+    private BreedImageRepository breedImageRepository;
+
+    @Test
+    void emptyMirrorHasNothingToServe() {
+        assertEquals(Optional.empty(), breedMirror.breeds());
+        assertEquals(Optional.empty(), breedMirror.subBreeds("hound"));
+        assertEquals(Optional.empty(), breedMirror.images("hound"));
+    }
+
+    @Test
+    void syncCatalogWritesOnlyWhatChanged() {
+        breedMirror.syncCatalog(Map.of("hound", List.of("afghan", "basset"), "shiba", List.of()));
+        Long bassetId = subBreedRepository.findByBreedOrderByPosition("hound").get(1).getId();
+
+        Set<String> changed = breedMirror.syncCatalog(Map.of("hound", List.of("afghan", "basset", "blood"), "pug", List.of()));
+
+        assertEquals(Set.of("hound", "shiba", "pug"), changed);
+        assertEquals(Optional.of(Map.of("hound", List.of("afghan", "basset", "blood"), "pug", List.of())), breedMirror.breeds());
+        List<SubBreed> hounds = subBreedRepository.findByBreedOrderByPosition("hound");
+        assertEquals(bassetId, hounds.get(1).getId());
+        assertEquals(Optional.empty(), breedMirror.subBreeds("shiba"));
+
+        assertEquals(Set.of(), breedMirror.syncCatalog(Map.of("hound", List.of("afghan", "basset", "blood"), "pug", List.of())));
+    }
+
+    @Test
+    void syncImagesKeepsUpstreamOrder() {
+        breedMirror.syncCatalog(Map.of("shiba", List.of()));
+        assertEquals(Optional.empty(), breedMirror.images("shiba"));
+
+        assertTrue(breedMirror.syncImages("shiba", List.of("a.jpg", "b.jpg", "c.jpg")));
+        assertTrue(breedMirror.syncImages("shiba", List.of("c.jpg", "a.jpg", "d.jpg")));
+        assertFalse(breedMirror.syncImages("shiba", List.of("c.jpg", "a.jpg", "d.jpg")));
+
+        assertEquals(Optional.of(List.of("c.jpg", "a.jpg", "d.jpg")), breedMirror.images("shiba"));
+        assertEquals(3, breedImageRepository.count());
+        assertFalse(breedMirror.syncImages("unicorn", List.of("x.jpg")));
+    }
+}
@@ -0,0 +1,67 @@
+package com.test.dog.service;
+
+import com.test.dog.dto.BreedSearchHit;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BreedSearchIndexTest {
+
+    private final BreedSearchIndex index = new BreedSearchIndex(catalog());
+
+    private static Map<String, List<String>> catalog() {
+        Map<String, List<String>> catalog = new LinkedHashMap<>();
+        catalog.put("terrier", List.of("yorkshire", "irish", "scottish"));
+        catalog.put("sheepdog", List.of("english", "shetland"));
+        catalog.put("shiba", List.of());
+        catalog.put("labrador", List.of());
+        return catalog;
+    }
+
+    private static List<String> names(List<BreedSearchHit> hits) {
+        return hits.stream().map(BreedSearchHit::getName).toList();
+    }
+
+    @Test
+    void prefixMatchesBreedsBeforeLongerNames() {
+        List<BreedSearchHit> hits = index.search("sh", 10);
+
+        assertEquals(List.of("shiba", "sheepdog", "sheepdog-english", "sheepdog-shetland"), names(hits));
+        assertEquals("PREFIX", hits.get(0).getMatch());
+    }
+
+    @Test
+    void findsSubBreedsByEitherWordOrder() {
+        assertEquals("terrier-yorkshire", index.search("york", 1).get(0).getName());
+        assertEquals("terrier-yorkshire", index.search("Yorkshire Terrier", 1).get(0).getName());
+
+        BreedSearchHit hit = index.search("terrier-yo", 5).get(0);
+        assertEquals("terrier", hit.getBreed());
+        assertEquals("yorkshire", hit.getSubBreed());
+    }
+
+    @Test
+    void toleratesTypos() {
+        List<BreedSearchHit> hits = index.search("labardor", 3);
+
+        assertEquals("labrador", hits.get(0).getName());
+        assertEquals("FUZZY", hits.get(0).getMatch());
+        assertEquals("sheepdog-shetland", index.search("shetlnd", 1).get(0).getName());
+        assertEquals("shiba", index.search("shbia", 1).get(0).getName());
+    }
+
+    @Test
+    void returnsEachNameOnceWithinTheLimit() {
+        List<BreedSearchHit> hits = index.search("terrier", 10);
+
+        assertEquals(hits.size(), names(hits).stream().distinct().count());
+        assertEquals(2, index.search("terrier", 2).size());
+        assertTrue(index.search("  ", 10).isEmpty());
+        assertTrue(index.search("zzzzqqq", 10).isEmpty());
+    }
+}
@@ -0,0 +1,90 @@
+package com.test.dog.service;
+
+import com.test.dog.handler.DogApiUnavailableException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker("IMAGES", 2, TimeUnit.SECONDS.toNanos(30), 1, clock::get);
+
+    @Test
+    void opensAfterConsecutiveFailuresAndRejectsFast() {
+        fail();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        fail();
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        CompletableFuture<String> rejected = circuitBreaker.execute(() -> CompletableFuture.completedFuture("never"));
+
+        CompletionException e = assertThrows(CompletionException.class, rejected::join);
+        assertInstanceOf(DogApiUnavailableException.class, e.getCause());
+        assertEquals(1, circuitBreaker.stats().getRejectedCalls());
+    }
+
+    @Test
+    void closesAgainAfterSuccessfulTrialCall() {
+        fail();
+        fail();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(31));
+
+        assertEquals("ok", circuitBreaker.execute(() -> CompletableFuture.completedFuture("ok")).join());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void failedTrialCallReopens() {
+        fail();
+        fail();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(31));
+
+        fail();
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void clientErrorsDoNotCountAsFailures() {
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.execute(() -> CompletableFuture.failedFuture(new HttpClientErrorException(HttpStatus.NOT_FOUND)));
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void onlyServerErrorsAndMissingResponsesCountAsFailures() {
+        assertFalse(CircuitBreaker.isFailure(new HttpClientErrorException(HttpStatus.NOT_FOUND)));
+        assertFalse(CircuitBreaker.isFailure(new CompletionException(new RestClientResponseException("Unexpected 302",
+                HttpStatus.FOUND, "Found", null, null, null))));
+        assertTrue(CircuitBreaker.isFailure(new HttpServerErrorException(HttpStatus.BAD_GATEWAY)));
+        assertTrue(CircuitBreaker.isFailure(new CompletionException(new ResourceAccessException("down"))));
+    }
+
+    @Test
+    void bulkheadRejectsCallsOverTheLimit() {
+        CompletableFuture<String> running = new CompletableFuture<>();
+        circuitBreaker.execute(() -> running);
+
+        CompletableFuture<String> rejected = circuitBreaker.execute(() -> CompletableFuture.completedFuture("never"));
+        assertThrows(CompletionException.class, rejected::join);
+
+        running.complete("done");
+        assertEquals("ok", circuitBreaker.execute(() -> CompletableFuture.completedFuture("ok")).join());
+    }
+
+    private void fail() {
+        circuitBreaker.execute(() -> CompletableFuture.failedFuture(new ResourceAccessException("down")));
+    }
+}
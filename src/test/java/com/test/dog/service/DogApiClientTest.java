@@ -0,0 +1,104 @@
+package com.test.dog.service;
+
+import com.test.dog.config.DogApiProperties;
+import com.test.dog.dto.DogSubBreedsResponse;
+import com.test.dog.dto.UpstreamResult;
+import com.test.dog.handler.DogApiUnavailableException;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DogApiClientTest {
+
+    private final UpstreamTransport transport = mock(UpstreamTransport.class);
+    private DogApiClient dogApiClient;
+
+    @BeforeEach
+    void setUp() {
+        DogApiProperties properties = new DogApiProperties();
+        properties.getResilience().setFailureThreshold(2);
+        dogApiClient = new DogApiClient(transport, properties);
+    }
+
+    @Test
+    void servesLastKnownGoodAsStaleWhileUpstreamIsDown() {
+        when(transport.get(anyString(), eq(DogSubBreedsResponse.class)))
+                .thenReturn(CompletableFuture.completedFuture(new DogSubBreedsResponse(List.of("english"))))
+                .thenReturn(CompletableFuture.failedFuture(new ResourceAccessException("down")));
+
+        UpstreamResult<List<String>> fresh = dogApiClient.fetchSubBreeds("sheepdog").join();
+        UpstreamResult<List<String>> stale = dogApiClient.fetchSubBreeds("sheepdog").join();
+
+        assertFalse(fresh.isStale());
+        assertTrue(stale.isStale());
+        assertEquals(List.of("english"), stale.getBody());
+    }
+
+    @Test
+    void openCircuitFailsFastWithoutCallingUpstream() {
+        when(transport.get(anyString(), eq(DogSubBreedsResponse.class)))
+                .thenReturn(CompletableFuture.failedFuture(new ResourceAccessException("down")));
+        assertThrows(ResourceAccessException.class, () -> DogApiClient.await(dogApiClient.fetchSubBreeds("hound")));
+        assertThrows(ResourceAccessException.class, () -> DogApiClient.await(dogApiClient.fetchSubBreeds("hound")));
+
+        assertThrows(DogApiUnavailableException.class, () -> DogApiClient.await(dogApiClient.fetchSubBreeds("hound")));
+
+        verify(transport, times(2)).get(anyString(), eq(DogSubBreedsResponse.class));
+        assertEquals("OPEN", dogApiClient.circuitBreakerStats().get("SUB_BREEDS").getState());
+        assertEquals("CLOSED", dogApiClient.circuitBreakerStats().get("IMAGES").getState());
+    }
+
+    @Test
+    void clientErrorIsNotReplacedByFallback() {
+        when(transport.get(anyString(), eq(DogSubBreedsResponse.class)))
+                .thenReturn(CompletableFuture.completedFuture(new DogSubBreedsResponse(List.of("english"))))
+                .thenReturn(CompletableFuture.failedFuture(new HttpClientErrorException(HttpStatus.NOT_FOUND)));
+        dogApiClient.fetchSubBreeds("sheepdog").join();
+
+        assertThrows(HttpClientErrorException.class, () -> DogApiClient.await(dogApiClient.fetchSubBreeds("sheepdog")));
+    }
+
+    @Test
+    void recordsUpstreamLatencyByEndpointAndStatus() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        dogApiClient = new DogApiClient(transport, new DogApiProperties(), registry);
+        when(transport.get(anyString(), eq(DogSubBreedsResponse.class)))
+                .thenReturn(CompletableFuture.completedFuture(new DogSubBreedsResponse(List.of("english"))))
+                .thenReturn(CompletableFuture.failedFuture(new HttpClientErrorException(HttpStatus.NOT_FOUND)))
+                .thenReturn(CompletableFuture.failedFuture(new ResourceAccessException("timeout", new InterruptedIOException("timeout"))));
+
+        dogApiClient.fetchSubBreeds("sheepdog").join();
+        assertThrows(HttpClientErrorException.class, () -> DogApiClient.await(dogApiClient.fetchSubBreeds("hound")));
+        assertThrows(ResourceAccessException.class, () -> DogApiClient.await(dogApiClient.fetchSubBreeds("shiba")));
+
+        assertEquals(1, upstreamTimer(registry, "SUB_BREEDS", "200").count());
+        assertEquals(1, upstreamTimer(registry, "SUB_BREEDS", "404").count());
+        assertEquals(1, upstreamTimer(registry, "SUB_BREEDS", "TIMEOUT").count());
+        assertEquals(0, upstreamTimer(registry, "IMAGES", "200").count());
+    }
+
+    private static Timer upstreamTimer(SimpleMeterRegistry registry, String endpoint, String status) {
+        return registry.get(UpstreamMetrics.TIMER_NAME).tag("endpoint", endpoint).tag("status", status).timer();
+    }
+
+    @Test
+    void emptyResponseIsAFailure() {
+        when(transport.get(anyString(), eq(DogSubBreedsResponse.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        assertThrows(DogApiUnavailableException.class, () -> DogApiClient.await(dogApiClient.fetchSubBreeds("sheepdog")));
+    }
+}
@@ -1,18 +1,25 @@
 package com.test.dog.service;
 
+import com.test.dog.config.DogApiProperties;
 import com.test.dog.dto.DogBreedsResponse;
+import com.test.dog.dto.DogFilter;
+import com.test.dog.dto.DogPage;
+import com.test.dog.dto.DogPatch;
+import com.test.dog.dto.DogSummary;
 import com.test.dog.dto.DogImagesResponse;
 import com.test.dog.dto.DogSubBreedsResponse;
 import com.test.dog.handler.DogNotFoundException;
+import com.test.dog.handler.DogVersionConflictException;
 import com.test.dog.model.Dog;
 import com.test.dog.repo.DogRepository;
 import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestTemplate;
@@ -31,9 +38,15 @@ public class DogApiServiceTest {
     @Mock
     private DogRepository dogRepository;
 
-    @InjectMocks
     private DogApiService dogApiService;
 
+    @Before
+    public void setUp() {
+        DogApiProperties properties = new DogApiProperties();
+        DogApiClient dogApiClient = new DogApiClient(new BlockingUpstreamTransport(restTemplate, Runnable::run, properties), properties);
+        dogApiService = new DogApiService(new BreedCatalogCache(dogApiClient, properties), dogRepository);
+    }
+
     @Test
     public void testGetDogBreeds() {
         // prepare test data
@@ -56,6 +69,20 @@ public class DogApiServiceTest {
         Assert.assertEquals(message, result);
     }
 
+    @Test
+    public void testGetDogBreedsServedFromCache() {
+        DogBreedsResponse response = new DogBreedsResponse(Collections.singletonMap("hound", Arrays.asList("afghan", "basset")));
+        Mockito.when(restTemplate.getForObject(DOG_API_URL + "/breeds/list/all", DogBreedsResponse.class))
+                .thenReturn(response);
+
+        Map<String, List<String>> first = dogApiService.getDogBreeds();
+        Map<String, List<String>> second = dogApiService.getDogBreeds();
+
+        Assert.assertEquals(response.getMessage(), first);
+        Assert.assertSame(first, second);
+        Mockito.verify(restTemplate, Mockito.times(1)).getForObject(Mockito.anyString(), Mockito.eq(DogBreedsResponse.class));
+    }
+
     @Test
     public void testGetDogById() {
         // prepare test data
@@ -84,6 +111,33 @@ public class DogApiServiceTest {
         dogApiService.getDogById(id);
     }
 
+    @Test
+    public void testListDogsReturnsCursorForNextPage() {
+        DogFilter filter = new DogFilter("hound", null, null, null);
+        List<DogSummary> rows = Arrays.asList(
+                new DogSummary(3L, "Rex", "hound", 2, "brown"),
+                new DogSummary(5L, "Ace", "hound", 7, "black"),
+                new DogSummary(8L, "Bo", "hound", 9, "brown"));
+        Mockito.when(dogRepository.findPage(filter, 1L, 3)).thenReturn(rows);
+
+        DogPage page = dogApiService.listDogs(filter, 1L, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(Long.valueOf(5L), page.getNextAfterId());
+    }
+
+    @Test
+    public void testListDogsLastPage() {
+        DogFilter filter = new DogFilter();
+        Mockito.when(dogRepository.findPage(filter, null, 3))
+                .thenReturn(Collections.singletonList(new DogSummary(3L, "Rex", "hound", 2, "brown")));
+
+        DogPage page = dogApiService.listDogs(filter, null, 2);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextAfterId());
+    }
+
     @Test
     public void testCreateDog() {
         // prepare test data
@@ -104,7 +158,7 @@ public class DogApiServiceTest {
         // prepare test data
         Long id = 1L;
         Dog dog = new Dog(id, "Buddy", "Golden Retriever", 5, "black");
-        Dog updatedDog = new Dog(id, "Max", "Labrador Retriever", 6, "black");
+        Dog updatedDog = new Dog(id, "Max", "Labrador Retriever", 6, "white");
 
         // mock behavior
         Mockito.when(dogRepository.findById(id)).thenReturn(Optional.of(dog));
@@ -115,6 +169,45 @@ public class DogApiServiceTest {
 
         // assert result
         Assert.assertEquals(updatedDog, result);
+        Assert.assertEquals("white", dog.getColor());
+    }
+
+    @Test
+    public void testUpdateDogWithVersionSkipsTheRead() {
+        Long id = 1L;
+        Dog updatedDog = new Dog(null, "Max", "Labrador Retriever", 6, "white");
+        Mockito.when(dogRepository.updateIfVersion(Mockito.any(Dog.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Dog result = dogApiService.updateDog(id, updatedDog, 3L);
+
+        Assert.assertEquals(id, result.getId());
+        Assert.assertEquals(Long.valueOf(3L), result.getVersion());
+        Mockito.verify(dogRepository, Mockito.never()).findById(id);
+    }
+
+    @Test
+    public void testUpdateDogWithStaleVersion() {
+        Long id = 1L;
+        Dog updatedDog = new Dog(null, "Max", "Labrador Retriever", 6, "white");
+        Mockito.when(dogRepository.updateIfVersion(Mockito.any(Dog.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Dog.class, id));
+        Mockito.when(dogRepository.existsById(id)).thenReturn(true, false);
+
+        assertThrows(DogVersionConflictException.class, () -> dogApiService.updateDog(id, updatedDog, 3L));
+        assertThrows(DogNotFoundException.class, () -> dogApiService.updateDog(id, updatedDog, 3L));
+    }
+
+    @Test
+    public void testPatchDogChangesOnlyGivenFields() {
+        Long id = 1L;
+        Dog dog = new Dog(id, "Buddy", "Golden Retriever", 5, "black", 2L);
+        Mockito.when(dogRepository.findById(id)).thenReturn(Optional.of(dog));
+        Mockito.when(dogRepository.save(dog)).thenReturn(dog);
+
+        Dog result = dogApiService.patchDog(id, new DogPatch(null, null, 6, "white"), 2L);
+
+        Assert.assertEquals(new Dog(id, "Buddy", "Golden Retriever", 6, "white"), result);
+        assertThrows(DogVersionConflictException.class, () -> dogApiService.patchDog(id, new DogPatch("Max", null, null, null), 1L));
     }
 
     @Test(expected = DogNotFoundException.class)
@@ -147,6 +240,28 @@ public class DogApiServiceTest {
         Mockito.verify(dogRepository, Mockito.times(1)).delete(dog);
     }
 
+    @Test
+    public void testDeleteDogWithVersionSkipsTheRead() {
+        Long id = 1L;
+
+        ResponseEntity<?> result = dogApiService.deleteDog(id, 2L);
+
+        Assert.assertEquals(HttpStatus.OK, result.getStatusCode());
+        Mockito.verify(dogRepository).deleteIfVersion(id, 2L);
+        Mockito.verify(dogRepository, Mockito.never()).findById(id);
+    }
+
+    @Test
+    public void testDeleteDogWithStaleVersion() {
+        Long id = 1L;
+        Mockito.doThrow(new ObjectOptimisticLockingFailureException(Dog.class, id))
+                .when(dogRepository).deleteIfVersion(id, 1L);
+        Mockito.when(dogRepository.existsById(id)).thenReturn(true, false);
+
+        assertThrows(DogVersionConflictException.class, () -> dogApiService.deleteDog(id, 1L));
+        assertThrows(DogNotFoundException.class, () -> dogApiService.deleteDog(id, 1L));
+    }
+
     @Test(expected = DogNotFoundException.class)
     public void testDeleteDogNotFound() {
         // prepare test data
@@ -167,19 +282,11 @@ public class DogApiServiceTest {
         List<String> subBreeds = Arrays.asList(subBreed1, subBreed2);
 
         String url1 = DOG_API_URL + "/breed/" + breed + "/list";
-        String url2 = DOG_API_URL + "/breed/" + breed + "/images/random/3";
-        String url3 = DOG_API_URL + "/breed/" + breed + "/images";
 
         DogSubBreedsResponse subBreedsResponse = new DogSubBreedsResponse(subBreeds);
-        DogImagesResponse imagesResponse1 = new DogImagesResponse(Collections.emptyList());
-        DogImagesResponse imagesResponse2 = new DogImagesResponse(Arrays.asList("https://test.com/image1.jpg", "https://test.com/image2.jpg", "https://test.com/image3.jpg"));
 
         Mockito.when(restTemplate.getForObject(url1, DogSubBreedsResponse.class))
                 .thenReturn(subBreedsResponse);
-        Mockito.when(restTemplate.getForObject(url2, DogImagesResponse.class))
-                .thenReturn(imagesResponse1);
-        Mockito.when(restTemplate.getForObject(url3, DogImagesResponse.class))
-                .thenReturn(imagesResponse2);
 
         List<String> result = dogApiService.getDogSubBreeds(breed);
 
@@ -187,6 +294,8 @@ public class DogApiServiceTest {
         assertEquals(2, result.size());
         assertEquals("sheepdog-english", result.get(0));
         assertEquals("sheepdog-scotch", result.get(1));
+        // the image endpoints are not needed for sheepdog and must not be called
+        Mockito.verify(restTemplate, Mockito.never()).getForObject(Mockito.anyString(), Mockito.eq(DogImagesResponse.class));
     }
 
     @Test
@@ -198,14 +307,8 @@ public class DogApiServiceTest {
         // Set up mock behavior for RestTemplate
         Mockito.when(restTemplate.getForObject(DOG_API_URL + "/breed/terrier/list", DogSubBreedsResponse.class))
                 .thenReturn(new DogSubBreedsResponse(subBreeds));
-        Mockito.when(restTemplate.getForObject(DOG_API_URL + "/breed/terrier/images/random/3", DogImagesResponse.class))
-                .thenReturn(new DogImagesResponse(images));
         Mockito.when(restTemplate.getForObject(DOG_API_URL + "/breed/terrier/images", DogImagesResponse.class))
                 .thenReturn(new DogImagesResponse(images));
-        Mockito.when(restTemplate.getForObject(DOG_API_URL + "/breed/shiba/list", DogSubBreedsResponse.class))
-                .thenReturn(new DogSubBreedsResponse(subBreeds));
-        Mockito.when(restTemplate.getForObject(DOG_API_URL + "/breed/shiba/images/random/3", DogImagesResponse.class))
-                .thenReturn(new DogImagesResponse(images));
         Mockito.when(restTemplate.getForObject(DOG_API_URL + "/breed/shiba/images", DogImagesResponse.class))
                 .thenReturn(new DogImagesResponse(images));
 
@@ -222,6 +325,51 @@ public class DogApiServiceTest {
         assertEquals("image3", result2.get(1));
     }
 
+    @Test
+    public void testGetDogSubBreedsDefault() {
+        List<String> subBreeds = Arrays.asList("afghan", "basset");
+        Mockito.when(restTemplate.getForObject(DOG_API_URL + "/breed/hound/list", DogSubBreedsResponse.class))
+                .thenReturn(new DogSubBreedsResponse(subBreeds));
+
+        List<String> result = dogApiService.getDogSubBreeds("hound");
+
+        assertEquals(subBreeds, result);
+        Mockito.verify(restTemplate, Mockito.times(1)).getForObject(Mockito.anyString(), Mockito.any());
+    }
+
+    @Test
+    public void testGetDogSubBreedsReusesShapedResultWhileCached() {
+        Mockito.when(restTemplate.getForObject(DOG_API_URL + "/breed/sheepdog/list", DogSubBreedsResponse.class))
+                .thenReturn(new DogSubBreedsResponse(Arrays.asList("english", "scotch")));
+        Mockito.when(restTemplate.getForObject(DOG_API_URL + "/breed/terrier/list", DogSubBreedsResponse.class))
+                .thenReturn(new DogSubBreedsResponse(Arrays.asList("sub1")));
+        Mockito.when(restTemplate.getForObject(DOG_API_URL + "/breed/terrier/images", DogImagesResponse.class))
+                .thenReturn(new DogImagesResponse(Arrays.asList("image1")));
+
+        assertSame(dogApiService.getDogSubBreedsResult("sheepdog"), dogApiService.getDogSubBreedsResult("sheepdog"));
+        // terrier draws new random images on every call
+        assertNotSame(dogApiService.getDogSubBreedsResult("terrier"), dogApiService.getDogSubBreedsResult("terrier"));
+        assertTrue(dogApiService.isSubBreedsReusable("sheepdog"));
+        assertFalse(dogApiService.isSubBreedsReusable("terrier"));
+    }
+
+    @Test
+    public void testGetRandomImagesSamplesCachedImageList() {
+        List<String> images = Arrays.asList("image1", "image2", "image3", "image4", "image5");
+        Mockito.when(restTemplate.getForObject(DOG_API_URL + "/breed/hound/images", DogImagesResponse.class))
+                .thenReturn(new DogImagesResponse(images));
+
+        for (int i = 0; i < 20; i++) {
+            List<String> sample = dogApiService.getRandomImagesResult("hound", 2).getBody();
+            assertEquals(2, sample.size());
+            assertTrue(images.containsAll(sample));
+            assertNotEquals(sample.get(0), sample.get(1));
+        }
+        assertEquals(images, dogApiService.getRandomImagesResult("hound", 10).getBody());
+        // the image list is fetched once; every draw after that is local
+        Mockito.verify(restTemplate, Mockito.times(1)).getForObject(Mockito.anyString(), Mockito.any());
+    }
+
 
 //    @Test
 //    public void testGetDogSubBreeds() {
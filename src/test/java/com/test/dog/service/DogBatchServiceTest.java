@@ -0,0 +1,95 @@
+package com.test.dog.service;
+
+import com.test.dog.config.DogBatchProperties;
+import com.test.dog.dto.DogBatchItemResult.Status;
+import com.test.dog.dto.DogBatchResponse;
+import com.test.dog.handler.BatchTooLargeException;
+import com.test.dog.model.Dog;
+import com.test.dog.repo.DogRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "dog.batch.chunk-size=3")
+@Import({DogBatchService.class, ValidationAutoConfiguration.class})
+@EnableConfigurationProperties(DogBatchProperties.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DogBatchServiceTest {
+
+    @Autowired
+    private DogBatchService dogBatchService;
+
+    @Autowired
+    private DogRepository dogRepository;
+
+    @AfterEach
+    void tearDown() {
+        dogRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void createDogsPersistsValidItemsAcrossChunks() {
+        List<Dog> dogs = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            dogs.add(new Dog(null, "Dog " + i, "hound", i, "brown"));
+        }
+        dogs.add(3, new Dog(null, "", "hound", 1, "brown"));
+
+        DogBatchResponse response = dogBatchService.createDogs(dogs);
+
+        assertEquals(7, response.getSucceeded());
+        assertEquals(1, response.getFailed());
+        assertEquals(Status.INVALID, response.getItems().get(3).getStatus());
+        assertEquals(Status.CREATED, response.getItems().get(7).getStatus());
+        assertNotNull(response.getItems().get(7).getId());
+        assertEquals(7, dogRepository.count());
+    }
+
+    @Test
+    void updateDogsReportsMissingIds() {
+        Dog saved = dogRepository.save(new Dog(null, "Buddy", "hound", 3, "brown"));
+
+        DogBatchResponse response = dogBatchService.updateDogs(Arrays.asList(
+                new Dog(saved.getId(), "Max", "terrier", 4, "black"),
+                new Dog(saved.getId() + 1000, "Ghost", "terrier", 4, "white"),
+                new Dog(null, "NoId", "terrier", 4, "white")));
+
+        assertEquals(Status.UPDATED, response.getItems().get(0).getStatus());
+        assertEquals(Status.NOT_FOUND, response.getItems().get(1).getStatus());
+        assertEquals(Status.INVALID, response.getItems().get(2).getStatus());
+        Dog updated = dogRepository.findById(saved.getId()).orElseThrow();
+        assertEquals("Max", updated.getName());
+        assertEquals("black", updated.getColor());
+    }
+
+    @Test
+    void deleteDogsRemovesExistingIds() {
+        Dog saved = dogRepository.save(new Dog(null, "Buddy", "hound", 3, "brown"));
+
+        DogBatchResponse response = dogBatchService.deleteDogs(Arrays.asList(saved.getId(), saved.getId() + 1000));
+
+        assertEquals(Status.DELETED, response.getItems().get(0).getStatus());
+        assertEquals(Status.NOT_FOUND, response.getItems().get(1).getStatus());
+        assertEquals(0, dogRepository.count());
+    }
+
+    @Test
+    void rejectsOversizedBatch() {
+        List<Long> ids = Collections.nCopies(5001, 1L);
+
+        assertThrows(BatchTooLargeException.class, () -> dogBatchService.deleteDogs(ids));
+    }
+}
@@ -0,0 +1,85 @@
+package com.test.dog.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.test.dog.model.Dog;
+import com.test.dog.repo.DogRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({DogExportService.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DogExportServiceTest {
+
+    @Autowired
+    private DogExportService dogExportService;
+
+    @Autowired
+    private DogRepository dogRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        dogRepository.save(new Dog(null, "Rex", "hound", 2, "brown"));
+        dogRepository.save(new Dog(null, "Max, Jr.", "terrier", 5, "black"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dogRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void exportsOneJsonDocumentPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        dogExportService.export(DogExportService.Format.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode second = new ObjectMapper().readTree(lines[1]);
+        assertEquals("Max, Jr.", second.get("name").asText());
+        assertEquals(5, second.get("age").asInt());
+    }
+
+    @Test
+    void exportsCsvWithQuotedFields() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        dogExportService.export(DogExportService.Format.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals("id,name,breed,age,color", lines[0]);
+        assertTrue(lines[1].endsWith(",Rex,hound,2,brown"));
+        assertTrue(lines[2].endsWith(",\"Max, Jr.\",terrier,5,black"));
+    }
+
+    @Test
+    void exportDoesNotFillTheSecondLevelCache() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        dogExportService.export(DogExportService.Format.NDJSON, new ByteArrayOutputStream());
+
+        assertEquals(0, statistics.getSecondLevelCachePutCount());
+    }
+}
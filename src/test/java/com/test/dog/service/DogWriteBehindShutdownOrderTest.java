@@ -0,0 +1,28 @@
+package com.test.dog.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.SmartLifecycle;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "dog.write-behind.enabled=true")
+class DogWriteBehindShutdownOrderTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private DogWriteBehind dogWriteBehind;
+
+    // higher phases stop first, so the queue drains only once the server takes no more requests
+    @Test
+    void stopsAfterTheWebServer() {
+        for (String webServerLifecycle : new String[]{"webServerStartStop", "webServerGracefulShutdown"}) {
+            SmartLifecycle webServer = context.getBean(webServerLifecycle, SmartLifecycle.class);
+            assertTrue(dogWriteBehind.getPhase() < webServer.getPhase(), webServerLifecycle);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.test.dog.service;
+
+import com.test.dog.config.DogWriteBehindProperties;
+import com.test.dog.dto.DogPatch;
+import com.test.dog.handler.DogNotFoundException;
+import com.test.dog.handler.DogVersionConflictException;
+import com.test.dog.handler.WriteBehindShuttingDownException;
+import com.test.dog.model.Dog;
+import com.test.dog.repo.DogRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {"dog.write-behind.enabled=true", "dog.write-behind.flush-window=5ms"})
+@Import({DogWriteBehind.class, ValidationAutoConfiguration.class})
+@EnableConfigurationProperties(DogWriteBehindProperties.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DogWriteBehindTest {
+
+    @Autowired
+    private DogWriteBehind dogWriteBehind;
+
+    @Autowired
+    private DogRepository dogRepository;
+
+    @AfterEach
+    void tearDown() {
+        dogRepository.deleteAllInBatch();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void createReturnsTheIdAtOnceAndStoresTheDogUnderIt() throws Exception {
+        Dog created = dogWriteBehind.create(new Dog(null, "Rex", "hound", 3, "brown"));
+
+        assertNotNull(created.getId());
+        assertEquals("Rex", dogWriteBehind.find(created.getId()).getName());
+        await(() -> dogRepository.existsById(created.getId()));
+        Dog stored = dogRepository.findById(created.getId()).orElseThrow();
+        assertEquals(created, stored);
+        assertEquals(created.getVersion(), stored.getVersion());
+        // ordinary inserts draw from the same sequence without colliding
+        assertNotEquals(created.getId(), dogRepository.save(new Dog(null, "Ace", "hound", 2, "black")).getId());
+    }
+
+    @Test
+    void appliesWritesToOneDogInOrder() throws Exception {
+        Dog created = dogWriteBehind.create(new Dog(null, "Rex", "hound", 3, "brown"));
+        dogWriteBehind.update(created.getId(), new Dog(null, "Max", "hound", 4, "brown"), null);
+        assertEquals("Max", dogWriteBehind.find(created.getId()).getName());
+
+        dogWriteBehind.delete(created.getId(), null);
+        assertThrows(DogNotFoundException.class, () -> dogWriteBehind.find(created.getId()));
+
+        await(() -> dogWriteBehind.queued() == 0);
+        Thread.sleep(50);
+        assertFalse(dogRepository.existsById(created.getId()));
+    }
+
+    @Test
+    void updatesAreVisibleOnceFlushed() throws Exception {
+        Dog created = dogWriteBehind.create(new Dog(null, "Rex", "hound", 3, "brown"));
+        Dog updated = dogWriteBehind.update(created.getId(), new Dog(null, "Max", "terrier", 4, "black"), null);
+
+        await(() -> dogRepository.findById(created.getId()).map(dog -> dog.getName().equals("Max")).orElse(false));
+        Dog stored = dogRepository.findById(created.getId()).orElseThrow();
+        assertEquals("terrier", stored.getBreed());
+        assertEquals("black", stored.getColor());
+        assertEquals(updated.getVersion(), stored.getVersion());
+    }
+
+    @Test
+    void queuedWritesCarryTheVersionTheFlushWillGive() throws Exception {
+        Dog created = dogWriteBehind.create(new Dog(null, "Rex", "hound", 3, "brown"));
+        assertEquals(0L, created.getVersion());
+
+        Dog patched = dogWriteBehind.patch(created.getId(), new DogPatch(null, null, 4, null), 0L);
+        assertEquals(1L, patched.getVersion());
+        assertEquals("Rex", patched.getName());
+        // a stale version is turned away, and so is a delete based on it
+        assertThrows(DogVersionConflictException.class,
+                () -> dogWriteBehind.update(created.getId(), new Dog(null, "Max", "hound", 3, "brown"), 0L));
+        assertThrows(DogVersionConflictException.class, () -> dogWriteBehind.delete(created.getId(), 0L));
+        // a write that changes nothing leaves the version alone, as Hibernate does
+        assertEquals(1L, dogWriteBehind.patch(created.getId(), new DogPatch(null, null, 4, null), 1L).getVersion());
+
+        await(() -> dogWriteBehind.queued() == 0);
+        await(() -> dogRepository.findById(created.getId()).map(dog -> dog.getAge() == 4).orElse(false));
+        assertEquals(1L, dogRepository.findById(created.getId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    void queuedWritesDoNotOverwriteAChangeMadeSinceTheyWereQueued() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        dogWriteBehind.bindTo(registry);
+        Dog saved = dogRepository.save(new Dog(null, "Rex", "hound", 3, "brown"));
+        Dog changed = dogRepository.updateIfVersion(new Dog(saved.getId(), "Max", "hound", 4, "brown", saved.getVersion()));
+
+        dogWriteBehind.flush(List.of(
+                new DogWriteBehind.Write(DogWriteBehind.Kind.UPDATE,
+                        new Dog(saved.getId(), "Ace", "hound", 5, "white", saved.getVersion() + 1), saved.getVersion()),
+                new DogWriteBehind.Write(DogWriteBehind.Kind.DELETE, saved, saved.getVersion())));
+
+        Dog stored = dogRepository.findById(saved.getId()).orElseThrow();
+        assertEquals("Max", stored.getName());
+        assertEquals(changed.getVersion(), stored.getVersion());
+        assertEquals(2.0, registry.get("dog.write.behind.conflicts").functionCounter().count());
+    }
+
+    @Test
+    void rejectsInvalidDogsAndUnknownIdsUpFront() {
+        assertThrows(jakarta.validation.ConstraintViolationException.class,
+                () -> dogWriteBehind.create(new Dog(null, "", "hound", 3, "brown")));
+        assertThrows(DogNotFoundException.class, () -> dogWriteBehind.update(-1L, new Dog(null, "Max", "hound", 4, "black"), null));
+    }
+
+    @Test
+    @DirtiesContext
+    void stopFlushesWhatIsQueuedAndRefusesNewWrites() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            ids.add(dogWriteBehind.create(new Dog(null, "Dog " + i, "hound", i % 15, "brown")).getId());
+        }
+
+        dogWriteBehind.stop();
+
+        assertEquals(200, dogRepository.findAllById(ids).size());
+        assertThrows(WriteBehindShuttingDownException.class, () -> dogWriteBehind.create(new Dog(null, "Late", "hound", 1, "brown")));
+    }
+}
@@ -0,0 +1,44 @@
+package com.test.dog.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageReservoirTest {
+
+    private final ImageReservoir reservoir = new ImageReservoir();
+    private final List<String> images = IntStream.range(0, 100).mapToObj(i -> "image" + i).toList();
+
+    @Test
+    void drawsDistinctImagesInListOrder() {
+        List<String> sample = reservoir.sample(images, 10);
+
+        assertEquals(10, sample.size());
+        assertEquals(10, new HashSet<>(sample).size());
+        assertTrue(images.containsAll(sample));
+        assertEquals(sample.stream().sorted((a, b) -> images.indexOf(a) - images.indexOf(b)).toList(), sample);
+    }
+
+    @Test
+    void coversTheWholeListOverManyDraws() {
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            seen.addAll(reservoir.sample(images, 3));
+        }
+
+        assertEquals(images.size(), seen.size());
+    }
+
+    @Test
+    void capsTheSampleSize() {
+        assertEquals(ImageReservoir.MAX_SAMPLE, reservoir.sample(images, 500).size());
+        assertEquals(List.of("a", "b"), reservoir.sample(List.of("a", "b"), 5));
+        assertEquals(List.of(), reservoir.sample(images, 0));
+        assertEquals(List.of(), reservoir.sample(List.of(), 3));
+    }
+}
@@ -0,0 +1,64 @@
+package com.test.dog.service;
+
+import com.test.dog.dto.SingleFlightStatsResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight singleFlight = new SingleFlight();
+
+    @Test
+    void concurrentCallersShareOneCall() {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+
+        CompletableFuture<String> first = singleFlight.execute("key", () -> {
+            calls.incrementAndGet();
+            return upstream;
+        });
+        CompletableFuture<String> second = singleFlight.execute("key", () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture("other");
+        });
+        upstream.complete("value");
+
+        assertEquals("value", first.join());
+        assertEquals("value", second.join());
+        assertEquals(1, calls.get());
+
+        SingleFlightStatsResponse stats = singleFlight.stats();
+        assertEquals(1, stats.getFlights());
+        assertEquals(2, stats.getCallers());
+        assertEquals(1, stats.getAbsorbedCallers());
+        assertEquals(0, stats.getInFlight());
+    }
+
+    @Test
+    void completedFlightIsNotReused() {
+        singleFlight.execute("key", () -> CompletableFuture.completedFuture("first")).join();
+
+        String second = singleFlight.execute("key", () -> CompletableFuture.completedFuture("second")).join();
+
+        assertEquals("second", second);
+        assertEquals(2, singleFlight.stats().getFlights());
+    }
+
+    @Test
+    void failureIsSharedAndUnwrapped() {
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+        CompletableFuture<String> first = singleFlight.execute("key", () -> upstream);
+        CompletableFuture<String> second = singleFlight.execute("key", () -> upstream);
+        upstream.completeExceptionally(new CompletionException(new IllegalStateException("boom")));
+
+        CompletionException e1 = assertThrows(CompletionException.class, first::join);
+        CompletionException e2 = assertThrows(CompletionException.class, second::join);
+        assertInstanceOf(IllegalStateException.class, e1.getCause());
+        assertInstanceOf(IllegalStateException.class, e2.getCause());
+    }
+}
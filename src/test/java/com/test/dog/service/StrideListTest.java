@@ -0,0 +1,33 @@
+package com.test.dog.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StrideListTest {
+
+    @Test
+    void viewsEveryOtherElementStartingWithTheFirst() {
+        assertEquals(List.of("a", "c", "e"), new StrideList<>(List.of("a", "b", "c", "d", "e"), 2));
+        assertEquals(List.of("a", "c"), new StrideList<>(List.of("a", "b", "c", "d"), 2));
+        assertEquals(List.of(), new StrideList<>(List.of(), 2));
+    }
+
+    @Test
+    void copiesSequentialSourcesOnce() {
+        List<String> view = new StrideList<>(new LinkedList<>(List.of("a", "b", "c")), 2);
+
+        assertEquals(List.of("a", "c"), view);
+    }
+
+    @Test
+    void isReadOnlyAndBoundsChecked() {
+        List<String> view = new StrideList<>(List.of("a", "b", "c"), 2);
+
+        assertThrows(UnsupportedOperationException.class, () -> view.add("d"));
+        assertThrows(IndexOutOfBoundsException.class, () -> view.get(2));
+    }
+}
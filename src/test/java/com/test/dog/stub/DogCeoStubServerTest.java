@@ -0,0 +1,105 @@
+package com.test.dog.stub;
+
+import com.test.dog.config.DogApiProperties;
+import com.test.dog.dto.DogSubBreedsResponse;
+import com.test.dog.service.BlockingUpstreamTransport;
+import com.test.dog.service.DogApiClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DogCeoStubServerTest {
+
+    private final RestTemplate restTemplate = new RestTemplate();
+    private DogCeoStubServer stub;
+    private BlockingUpstreamTransport transport;
+
+    @AfterEach
+    void tearDown() {
+        if (transport != null) {
+            transport.close();
+        }
+        stub.close();
+    }
+
+    private DogCeoStubProperties stubProperties() {
+        DogCeoStubProperties properties = new DogCeoStubProperties();
+        properties.setPort(0);
+        properties.setImagesPerBreed(40);
+        return properties;
+    }
+
+    private DogApiClient clientFor(DogCeoStubServer stub) {
+        DogApiProperties properties = new DogApiProperties();
+        properties.setBaseUrl(stub.getBaseUrl());
+        transport = new BlockingUpstreamTransport(restTemplate, properties);
+        return new DogApiClient(transport, properties);
+    }
+
+    @Test
+    void servesFixturesThroughTheClient() throws IOException {
+        stub = new DogCeoStubServer(stubProperties());
+        stub.start();
+        DogApiClient dogApiClient = clientFor(stub);
+
+        assertEquals(100, DogApiClient.await(dogApiClient.fetchBreeds()).getBody().size());
+        assertEquals(6, DogApiClient.await(dogApiClient.fetchSubBreeds("terrier")).getBody().size());
+        assertTrue(DogApiClient.await(dogApiClient.fetchSubBreeds("shiba")).getBody().isEmpty());
+        assertEquals(40, DogApiClient.await(dogApiClient.fetchImages("shiba")).getBody().size());
+
+        List<String> random = DogApiClient.await(dogApiClient.fetchRandomImages("terrier", 3)).getBody();
+        assertEquals(3, new HashSet<>(random).size());
+        assertTrue(random.stream().allMatch(url -> url.contains("/terrier/")));
+    }
+
+    @Test
+    void unknownBreedIsNotFound() throws IOException {
+        stub = new DogCeoStubServer(stubProperties());
+        stub.start();
+
+        assertThrows(HttpClientErrorException.NotFound.class, () -> DogApiClient.await(clientFor(stub).fetchSubBreeds("unicorn")));
+    }
+
+    @Test
+    void injectsErrors() throws IOException {
+        DogCeoStubProperties properties = stubProperties();
+        properties.setErrorRate(1);
+        stub = new DogCeoStubServer(properties);
+        stub.start();
+
+        assertThrows(HttpServerErrorException.InternalServerError.class,
+                () -> restTemplate.getForObject(stub.getBaseUrl() + "/breed/terrier/list", DogSubBreedsResponse.class));
+    }
+
+    @Test
+    void injectsLatency() throws IOException {
+        DogCeoStubProperties properties = stubProperties();
+        properties.setLatency(Duration.ofMillis(200));
+        stub = new DogCeoStubServer(properties);
+        stub.start();
+
+        long start = System.nanoTime();
+        restTemplate.getForObject(stub.getBaseUrl() + "/breed/terrier/list", DogSubBreedsResponse.class);
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 200);
+    }
+
+    @Test
+    void answersRandomImagesForABreedWithoutImages() throws IOException {
+        DogCeoStubProperties properties = stubProperties();
+        properties.setImagesPerBreed(0);
+        stub = new DogCeoStubServer(properties);
+        stub.start();
+
+        assertTrue(DogApiClient.await(clientFor(stub).fetchRandomImages("terrier", 3)).getBody().isEmpty());
+    }
+}
@@ -0,0 +1,64 @@
+package com.test.dog.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcPinningGuardTest {
+
+    private final JdbcPinningGuard.GuardedDataSource dataSource =
+            (JdbcPinningGuard.GuardedDataSource) new JdbcPinningGuard(1).postProcessAfterInitialization(h2(), "dataSource");
+
+    private static DataSource h2() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:pinning;DB_CLOSE_DELAY=-1");
+        return h2;
+    }
+
+    @Test
+    void virtualThreadsWaitForAPermitUntilTheConnectionCloses() throws Exception {
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread.ofVirtual().start(() -> {
+            try (Connection connection = dataSource.getConnection()) {
+                holding.countDown();
+                release.await();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(holding.await(5, TimeUnit.SECONDS));
+        assertEquals(0, dataSource.availablePermits());
+
+        CompletableFuture<Boolean> second = new CompletableFuture<>();
+        Thread waiter = Thread.ofVirtual().start(() -> {
+            try (Connection connection = dataSource.getConnection()) {
+                second.complete(connection.isValid(1));
+            } catch (Exception e) {
+                second.completeExceptionally(e);
+            }
+        });
+        Thread.sleep(100);
+        assertFalse(second.isDone());
+
+        release.countDown();
+        assertTrue(second.get(5, TimeUnit.SECONDS));
+        waiter.join();
+        assertEquals(1, dataSource.availablePermits());
+    }
+
+    @Test
+    void platformThreadsAreNotLimited() throws Exception {
+        try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+            assertTrue(first.isValid(1) && second.isValid(1));
+            assertEquals(1, dataSource.availablePermits());
+        }
+    }
+}